@@ -14,6 +14,8 @@ dependencies {
     compileOnly(files("libs/HytaleServer.jar"))
     implementation(files("libs/HyUI-0.5.11-all.jar"))
 
+    // Tests construct CitizenData, which references the server's math and ECS types
+    testImplementation(files("libs/HytaleServer.jar"))
     testImplementation(platform("org.junit:junit-bom:5.10.0"))
     testImplementation("org.junit.jupiter:junit-jupiter")
 }
@@ -2,6 +2,7 @@ package com.electro.hycitizens;
 
 import com.electro.hycitizens.actions.BuilderActionInteract;
 import com.electro.hycitizens.commands.CitizensCommand;
+import com.electro.hycitizens.components.CitizenComponent;
 import com.electro.hycitizens.listeners.*;
 import com.electro.hycitizens.managers.CitizensManager;
 import com.electro.hycitizens.models.CitizenData;
@@ -9,6 +10,7 @@ import com.electro.hycitizens.ui.CitizensUI;
 import com.electro.hycitizens.util.ConfigManager;
 import com.electro.hycitizens.util.RoleAssetPackManager;
 import com.electro.hycitizens.util.UpdateChecker;
+import com.hypixel.hytale.component.ComponentType;
 import com.hypixel.hytale.event.EventPriority;
 import com.hypixel.hytale.server.core.HytaleServer;
 import com.hypixel.hytale.server.core.event.events.ShutdownEvent;
@@ -18,8 +20,10 @@ import com.hypixel.hytale.server.core.plugin.JavaPluginInit;
 import com.hypixel.hytale.server.core.universe.world.chunk.BlockChunk;
 import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.events.ChunkPreLoadProcessEvent;
+import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
 import com.hypixel.hytale.server.core.universe.world.events.ecs.ChunkUnloadEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 import com.hypixel.hytale.server.npc.NPCPlugin;
 
 import javax.annotation.Nonnull;
@@ -34,11 +38,14 @@ public class HyCitizensPlugin extends JavaPlugin {
     private CitizensManager citizensManager;
     private CitizensUI citizensUI;
     private Path generatedRolesPath;
+    private ComponentType<EntityStore, CitizenComponent> citizenComponentType;
 
     // Listeners
     private PlayerAddToWorldListener addToWorldListener;
     private ChunkPreLoadListener chunkPreLoadListener;
     private PlayerConnectionListener connectionListener;
+    private StaticCitizenInteractListener staticInteractListener;
+    private WorldRemoveListener worldRemoveListener;
 
     public HyCitizensPlugin(@Nonnull JavaPluginInit init) {
         super(init);
@@ -54,6 +61,9 @@ public class HyCitizensPlugin extends JavaPlugin {
 
         RoleAssetPackManager.setup();
 
+        // Register components before any citizen can be spawned
+        this.citizenComponentType = getEntityStoreRegistry().registerComponent(CitizenComponent.class, "HyCitizensCitizen", CitizenComponent.CODEC);
+
         this.citizensManager = new CitizensManager(this);
         this.citizensUI = new CitizensUI(this);
 
@@ -64,6 +74,8 @@ public class HyCitizensPlugin extends JavaPlugin {
         this.addToWorldListener = new PlayerAddToWorldListener(this);
         this.chunkPreLoadListener = new ChunkPreLoadListener(this);
         this.connectionListener = new PlayerConnectionListener(this);
+        this.staticInteractListener = new StaticCitizenInteractListener(this);
+        this.worldRemoveListener = new WorldRemoveListener(this);
 
         NPCPlugin.get().registerCoreComponentType("CitizenInteraction", BuilderActionInteract::new);
 
@@ -86,10 +98,15 @@ public class HyCitizensPlugin extends JavaPlugin {
     private void registerEventListeners() {
         getEventRegistry().register(PlayerDisconnectEvent.class, connectionListener::onPlayerDisconnect);
         getEventRegistry().register(PlayerConnectEvent.class, connectionListener::onPlayerConnect);
+        getEventRegistry().registerGlobal(PlayerInteractEvent.class, staticInteractListener::onPlayerInteract);
 
         this.getEntityStoreRegistry().registerSystem(new EntityDamageListener(this));
+        this.getEntityStoreRegistry().registerSystem(new CitizenTickListener(this));
+        this.getEntityStoreRegistry().registerSystem(new CitizenNametagListener(this));
         //getEventRegistry().registerGlobal(AddPlayerToWorldEvent.class, addToWorldListener::onAddPlayerToWorld);
         getEventRegistry().registerGlobal(EventPriority.LAST, ChunkPreLoadProcessEvent.class, chunkPreLoadListener::onChunkPreload);
+        this.getChunkStoreRegistry().registerSystem(new ChunkUnloadListener(this));
+        getEventRegistry().registerGlobal(RemoveWorldEvent.class, worldRemoveListener::onWorldRemove);
     }
 
     public static HyCitizensPlugin get() {
@@ -108,6 +125,10 @@ public class HyCitizensPlugin extends JavaPlugin {
         return citizensUI;
     }
 
+    public ComponentType<EntityStore, CitizenComponent> getCitizenComponentType() {
+        return citizenComponentType;
+    }
+
     @Nonnull
     public Path getGeneratedRolesPath() {
         return generatedRolesPath;
@@ -18,7 +18,6 @@ import com.hypixel.hytale.server.npc.role.Role;
 import com.hypixel.hytale.server.npc.sensorinfo.InfoProvider;
 
 import javax.annotation.Nonnull;
-import java.util.List;
 
 public class CitizenInteractionActionbase extends ActionBase {
     public CitizenInteractionActionbase(@Nonnull BuilderActionBase builderActionBase) {
@@ -43,22 +42,9 @@ public class CitizenInteractionActionbase extends ActionBase {
             return false;
         }
 
-        UUIDComponent uuidComponent = ref.getStore().getComponent(ref, UUIDComponent.getComponentType());
-        if (uuidComponent == null) {
-            return false;
-        }
-
-        List<CitizenData> citizens = HyCitizensPlugin.get().getCitizensManager().getAllCitizens();
-        for (CitizenData citizen : citizens) {
-            if (citizen.getSpawnedUUID() == null)
-                continue;
-
-            if (!citizen.getSpawnedUUID().equals(uuidComponent.getUuid()))
-                continue;
-
+        CitizenData citizen = HyCitizensPlugin.get().getCitizensManager().getCitizenForEntity(ref, ref.getStore());
+        if (citizen != null) {
             CitizenInteraction.handleInteraction(citizen, playerRef);
-
-            break;
         }
         return true;
     }
@@ -20,6 +20,8 @@ public class CitizensCommand extends AbstractPlayerCommand{
         this.requirePermission("citizens.admin");
         this.addAliases("citizen", "hycitizens", "hycitizen");
         this.plugin = plugin;
+
+        this.addSubCommand(new CitizensStatsCommand(plugin));
     }
 
     @Override
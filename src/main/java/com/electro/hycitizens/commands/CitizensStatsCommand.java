@@ -0,0 +1,50 @@
+package com.electro.hycitizens.commands;
+
+import com.electro.hycitizens.HyCitizensPlugin;
+import com.electro.hycitizens.managers.CitizensManager;
+import com.electro.hycitizens.managers.LookAtLod;
+import com.electro.hycitizens.managers.SpawnPipeline;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.server.core.Message;
+import com.hypixel.hytale.server.core.command.system.CommandContext;
+import com.hypixel.hytale.server.core.command.system.basecommands.AbstractPlayerCommand;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+// Counters from the citizen tick work, for checking how the LOD and budgets behave on a live server
+public class CitizensStatsCommand extends AbstractPlayerCommand {
+    private final HyCitizensPlugin plugin;
+
+    public CitizensStatsCommand(@Nonnull HyCitizensPlugin plugin) {
+        super("stats", "Show citizen performance counters");
+        this.requirePermission("citizens.admin");
+        this.plugin = plugin;
+    }
+
+    @Override
+    protected void execute(@Nonnull CommandContext commandContext, @Nonnull Store<EntityStore> store, @Nonnull Ref<EntityStore> ref, @Nonnull PlayerRef playerRef, @Nonnull World world) {
+        CitizensManager manager = plugin.getCitizensManager();
+        LookAtLod lookAtLod = manager.getLookAtLod();
+        SpawnPipeline pipeline = manager.getSpawnPipeline();
+
+        playerRef.sendMessage(Message.raw("Citizens: " + manager.getCitizenCount()
+                + " (" + manager.getDormantCitizenCount() + " in unloaded chunks)"));
+        playerRef.sendMessage(Message.raw("Spawns: " + pipeline.getQueued() + " queued, " + pipeline.getSpawned() + " spawned, "
+                + pipeline.getExpired() + " expired, " + manager.getPendingSpawnCount() + " pending"));
+        playerRef.sendMessage(Message.raw("Spawn rate: " + formatDecimal(pipeline.getSpawnsPerSecond()) + "/s, "
+                + formatDecimal(pipeline.getAverageSpawnMillis()) + " ms each, over budget on "
+                + pipeline.getDeferredTicks() + " ticks"));
+        playerRef.sendMessage(Message.raw("Look-at updates suppressed: near " + lookAtLod.getSuppressed(LookAtLod.Band.NEAR)
+                + ", mid " + lookAtLod.getSuppressed(LookAtLod.Band.MID)
+                + ", far " + lookAtLod.getSuppressed(LookAtLod.Band.FAR)));
+    }
+
+    @Nonnull
+    private static String formatDecimal(double value) {
+        return String.format("%.2f", value);
+    }
+}
@@ -0,0 +1,48 @@
+package com.electro.hycitizens.components;
+
+import com.electro.hycitizens.HyCitizensPlugin;
+import com.hypixel.hytale.codec.Codec;
+import com.hypixel.hytale.codec.KeyedCodec;
+import com.hypixel.hytale.codec.builder.BuilderCodec;
+import com.hypixel.hytale.component.Component;
+import com.hypixel.hytale.component.ComponentType;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+public class CitizenComponent implements Component<EntityStore> {
+    public static final BuilderCodec<CitizenComponent> CODEC = BuilderCodec.builder(CitizenComponent.class, CitizenComponent::new)
+            .append(new KeyedCodec<>("CitizenId", Codec.STRING),
+                    (component, citizenId) -> component.citizenId = citizenId,
+                    component -> component.citizenId)
+            .add()
+            .build();
+
+    private String citizenId;
+
+    public CitizenComponent() {
+        this.citizenId = "";
+    }
+
+    public CitizenComponent(@Nonnull String citizenId) {
+        this.citizenId = citizenId;
+    }
+
+    public static ComponentType<EntityStore, CitizenComponent> getComponentType() {
+        return HyCitizensPlugin.get().getCitizenComponentType();
+    }
+
+    @Nonnull
+    public String getCitizenId() {
+        return citizenId;
+    }
+
+    public void setCitizenId(@Nonnull String citizenId) {
+        this.citizenId = citizenId;
+    }
+
+    @Override
+    public CitizenComponent clone() {
+        return new CitizenComponent(citizenId);
+    }
+}
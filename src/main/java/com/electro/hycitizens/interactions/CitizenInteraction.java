@@ -2,6 +2,8 @@ package com.electro.hycitizens.interactions;
 
 import com.electro.hycitizens.HyCitizensPlugin;
 import com.electro.hycitizens.events.CitizenInteractEvent;
+import com.electro.hycitizens.managers.ObserverStateStore;
+import com.electro.hycitizens.models.AnimationTrigger;
 import com.electro.hycitizens.models.CitizenData;
 import com.electro.hycitizens.models.CitizenMessage;
 import com.electro.hycitizens.models.CommandAction;
@@ -21,7 +23,6 @@ import java.awt.*;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
-import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
@@ -160,7 +161,7 @@ public class CitizenInteraction {
             return;
 
         // Trigger ON_INTERACT animations
-        HyCitizensPlugin.get().getCitizensManager().triggerAnimations(citizen, "ON_INTERACT");
+        HyCitizensPlugin.get().getCitizensManager().triggerAnimations(citizen, AnimationTrigger.ON_INTERACT);
 
         // Handle messages system
         MessagesConfig msgConfig = citizen.getMessagesConfig();
@@ -170,13 +171,15 @@ public class CitizenInteraction {
 
             switch (mode) {
                 case "SEQUENTIAL" -> {
-                    UUID playerUUID = playerRef.getUuid();
-                    int index = citizen.getSequentialMessageIndex().getOrDefault(playerUUID, 0);
+                    ObserverStateStore observerStates = HyCitizensPlugin.get().getCitizensManager().getObserverStates();
+                    ObserverStateStore.PlayerState observer = observerStates.get(playerRef.getUuid());
+                    int citizenIndex = observerStates.indexOf(citizen);
+                    int index = observer.getMessageIndex(citizenIndex);
                     if (index >= messages.size()) index = 0;
                     String msgText = replacePlaceholders(messages.get(index).getMessage(), playerRef, citizen);
                     Message parsed = parseColoredMessage(msgText);
                     if (parsed != null) playerRef.sendMessage(parsed);
-                    citizen.getSequentialMessageIndex().put(playerUUID, index + 1);
+                    observer.setMessageIndex(citizenIndex, index + 1);
                 }
                 case "ALL" -> {
                     for (CitizenMessage cm : messages) {
@@ -2,26 +2,18 @@ package com.electro.hycitizens.listeners;
 
 import com.electro.hycitizens.HyCitizensPlugin;
 import com.electro.hycitizens.models.CitizenData;
+import com.electro.hycitizens.models.CitizenLifecycle;
 import com.hypixel.hytale.component.Ref;
-import com.hypixel.hytale.math.util.ChunkUtil;
-import com.hypixel.hytale.server.core.HytaleServer;
 import com.hypixel.hytale.server.core.universe.world.World;
 import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
 import com.hypixel.hytale.server.core.universe.world.events.ChunkPreLoadProcessEvent;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
 import javax.annotation.Nonnull;
-import java.util.Set;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
-import static com.hypixel.hytale.logger.HytaleLogger.getLogger;
 
 public class ChunkPreLoadListener {
     private final HyCitizensPlugin plugin;
-    private final Set<String> citizensBeingProcessed = ConcurrentHashMap.newKeySet();
 
     public ChunkPreLoadListener(@Nonnull HyCitizensPlugin plugin) {
         this.plugin = plugin;
@@ -32,252 +24,93 @@ public class ChunkPreLoadListener {
         long eventChunkIndex = event.getChunk().getIndex();
         UUID worldUUID = world.getWorldConfig().getUuid();
 
-        // Collect citizens that belong to this chunk, then return from the event
-        for (CitizenData citizen : plugin.getCitizensManager().getAllCitizens()) {
-            if (!worldUUID.equals(citizen.getWorldUUID()))
-                continue;
-
-            // Skip citizens that were just created (within last 10 seconds) to prevent double spawning
-            long timeSinceCreation = System.currentTimeMillis() - citizen.getCreatedAt();
-            if (timeSinceCreation < 10000) {
-                continue;
-            }
-
-            // Check if the citizens is in the chunk
-            long citizenChunkIndex = ChunkUtil.indexChunkFromBlock((int)citizen.getPosition().x, (int)citizen.getPosition().z);
-            if (eventChunkIndex != citizenChunkIndex) {
+        // Only citizens indexed in this chunk, then return from the event
+        for (CitizenData citizen : plugin.getCitizensManager().getCitizensInChunk(worldUUID, eventChunkIndex)) {
+            // A citizen whose entity was saved with another chunk is restored with that chunk, not spawned a second time here
+            if (plugin.getCitizensManager().isCitizenAway(citizen)) {
                 continue;
             }
 
-            // Hand off the heavy work to run outside the event
-            long chunkIndex = ChunkUtil.indexChunkFromBlock(citizen.getPosition().x, citizen.getPosition().z);
-            HytaleServer.SCHEDULED_EXECUTOR.schedule(() -> {
-                processCitizenAsync(world, citizen, chunkIndex);
-            }, 0, TimeUnit.MILLISECONDS);
+            tryQueueCitizen(world, citizen, eventChunkIndex);
         }
-    }
-
-    private void processCitizenAsync(World world, CitizenData citizen, long chunkIndex) {
-        // First check if the chunk is already loaded
-        WorldChunk loadedChunk = world.getChunkIfLoaded(chunkIndex);
-        if (loadedChunk != null) {
-            world.execute(() -> {
-                Ref<EntityStore> entityRef = null;
-                if (citizen.getSpawnedUUID() != null) {
-                    entityRef = world.getEntityRef(citizen.getSpawnedUUID());
-                }
-
-                if (entityRef == null) {
-                    plugin.getCitizensManager().spawnCitizenNPC(citizen, true);
-                } else {
-                    // Entity exists, update skin
-                    if (citizen.isPlayerModel()) {
-                        plugin.getCitizensManager().updateCitizenSkin(citizen, true);
-                    }
 
-                    // Update NPC ref
-                    citizen.setNpcRef(entityRef);
-                }
-            });
+        for (CitizenData citizen : plugin.getCitizensManager().getCitizensAwayInChunk(worldUUID, eventChunkIndex)) {
+            tryQueueCitizen(world, citizen, eventChunkIndex);
+        }
 
-            // Schedule delayed hologram check for chunk already loaded case
-            scheduleHologramCheck(world, citizen, chunkIndex);
+        // Spawn work waiting on this chunk, including what was just queued, is picked up as soon as it has loaded
+        plugin.getCitizensManager().getPendingSpawnQueue(world).onChunkLoading(eventChunkIndex);
+    }
 
+    private void tryQueueCitizen(World world, CitizenData citizen, long chunkIndex) {
+        // Citizens that already have spawn work queued or running, are dead or are being removed are left alone
+        if (!citizen.compareAndSetLifecycle(CitizenLifecycle.UNLOADED, CitizenLifecycle.PENDING)
+                && !citizen.compareAndSetLifecycle(CitizenLifecycle.SPAWNED, CitizenLifecycle.PENDING)) {
             return;
         }
 
-        // Chunk is not loaded. Try to wait for it to load, if it takes too long, assume it won't load and load it
-        long start = System.currentTimeMillis();
-        final ScheduledFuture<?>[] futureRef = new ScheduledFuture<?>[1];
-        boolean[] spawned = { false };
-        boolean[] queued = { false };
-        boolean[] hologramCheckScheduled = { false };
+        queueCitizen(world, citizen, chunkIndex);
+    }
 
-        futureRef[0] = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-            if (spawned[0]) {
-                futureRef[0].cancel(false);
+    private void queueCitizen(World world, CitizenData citizen, long chunkIndex) {
+        // Nothing happens until the chunk has loaded. If it never does, load it from memory if possible and try anyway
+        plugin.getCitizensManager().getPendingSpawnQueue(world).enqueue("preload:" + citizen.getId(), citizen, chunkIndex, () -> {
+            if (!citizen.compareAndSetLifecycle(CitizenLifecycle.PENDING, CitizenLifecycle.SPAWNING)) {
                 return;
             }
 
-            // Timeout
-            long elapsedMs = System.currentTimeMillis() - start;
-            WorldChunk loadedChunk2 = world.getChunkIfLoaded(chunkIndex);
-
-            if (elapsedMs >= 15_000 || loadedChunk2 != null) {
-                futureRef[0].cancel(false);
-
-                // Check if the citizen spawned, if it didn't then it's likely it's in an unloaded chunk. Load the chunk and try again
-                // Todo: This isn't very performant if there's a lot of citizens in unloaded chunks
-                if (!spawned[0]) {
-                    WorldChunk chunkInMemory = world.getChunkIfInMemory(chunkIndex);
-                    if (chunkInMemory == null) {
-                        // Chunk is not in memory, there's nothing we can do to check if citizen is loaded or not
-                        return;
-                    }
-
-                    world.loadChunkIfInMemory(chunkIndex);
-
-                    world.execute(() -> {
-                        Ref<EntityStore> entityRef = null;
-                        if (citizen.getSpawnedUUID() != null) {
-                            entityRef = world.getEntityRef(citizen.getSpawnedUUID());
-                        }
-
-                        // If the chunk loads, try to spawn the citizen if it doesn't exist
-                        if (entityRef == null) {
-                            plugin.getCitizensManager().spawnCitizenNPC(citizen, true);
-                        } else {
-                            // Entity exists, update skin
-                            if (citizen.isPlayerModel()) {
-                                plugin.getCitizensManager().updateCitizenSkin(citizen, true);
-                            }
-
-                            // Update NPC ref
-                            citizen.setNpcRef(entityRef);
-                        }
-                    });
-
-                    // Schedule delayed hologram check after timeout spawn
-                    if (!hologramCheckScheduled[0]) {
-                        hologramCheckScheduled[0] = true;
-                        scheduleHologramCheck(world, citizen, chunkIndex);
-                    }
-                }
-
+            restoreCitizen(world, citizen);
+            checkHologram(world, citizen);
+            citizen.compareAndSetLifecycle(CitizenLifecycle.SPAWNING, CitizenLifecycle.SPAWNED);
+        }, () -> {
+            if (!citizen.compareAndSetLifecycle(CitizenLifecycle.PENDING, CitizenLifecycle.SPAWNING)) {
                 return;
             }
 
-            if (queued[0]) {
+            // Check if the citizen spawned, if it didn't then it's likely it's in an unloaded chunk. Load the chunk and try again
+            WorldChunk chunkInMemory = world.getChunkIfInMemory(chunkIndex);
+            if (chunkInMemory == null) {
+                // Chunk is not in memory, there's nothing we can do to check if citizen is loaded or not
+                citizen.compareAndSetLifecycle(CitizenLifecycle.SPAWNING, CitizenLifecycle.UNLOADED);
                 return;
             }
-            queued[0] = true;
-
-            world.execute(() -> {
-                WorldChunk chunk = world.getChunkIfLoaded(chunkIndex);
-
-                if (chunk == null) {
-                    queued[0] = false;
-                    return;
-                }
 
-                spawned[0] = true;
-                futureRef[0].cancel(false);
+            world.loadChunkIfInMemory(chunkIndex);
+            restoreCitizen(world, citizen);
+            citizen.compareAndSetLifecycle(CitizenLifecycle.SPAWNING, CitizenLifecycle.SPAWNED);
 
-                Ref<EntityStore> entityRef = null;
-                if (citizen.getSpawnedUUID() != null) {
-                    entityRef = world.getEntityRef(citizen.getSpawnedUUID());
-                }
-
-                // If the chunk is loaded, try to spawn the citizen if it doesn't exist
-                if (entityRef == null) {
-                    plugin.getCitizensManager().spawnCitizenNPC(citizen, true);
-                } else {
-                    // Entity exists, update skin
-                    if (citizen.isPlayerModel()) {
-                        plugin.getCitizensManager().updateCitizenSkin(citizen, true);
-                    }
-
-                    // Update NPC ref
-                    citizen.setNpcRef(entityRef);
-                }
-
-                // Schedule delayed hologram check after periodic spawn
-                if (!hologramCheckScheduled[0]) {
-                    hologramCheckScheduled[0] = true;
-                    scheduleHologramCheck(world, citizen, chunkIndex);
-                }
-            });
-
-        }, 0, 250, TimeUnit.MILLISECONDS);
+            // The hologram check waits for the chunk to finish loading
+            plugin.getCitizensManager().getPendingSpawnQueue(world).enqueue("hologram-check:" + citizen.getId(), citizen, chunkIndex,
+                    () -> checkHologram(world, citizen), null);
+        });
     }
 
-    private void scheduleHologramCheck(World world, CitizenData citizen, long chunkIndex) {
-        // Check if this citizen is already being processed
-        if (!citizensBeingProcessed.add(citizen.getId())) {
-            // Already being processed, skip
-            return;
+    // Runs on the world thread
+    private void restoreCitizen(World world, CitizenData citizen) {
+        Ref<EntityStore> entityRef = null;
+        if (citizen.getSpawnedUUID() != null) {
+            entityRef = world.getEntityRef(citizen.getSpawnedUUID());
         }
 
-        long hologramCheckStart = System.currentTimeMillis();
-        final ScheduledFuture<?>[] hologramFutureRef = new ScheduledFuture<?>[1];
-        boolean[] hologramChecked = { false };
-
-        hologramFutureRef[0] = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-            if (hologramChecked[0]) {
-                hologramFutureRef[0].cancel(false);
-                citizensBeingProcessed.remove(citizen.getId());
-                return;
-            }
-
-            long hologramElapsedMs = System.currentTimeMillis() - hologramCheckStart;
-
-            WorldChunk loadedChunk = world.getChunkIfLoaded(chunkIndex);
-
-            // Timeout after 15 seconds total or until the chunk is loaded
-            if (hologramElapsedMs >= 15_000 || loadedChunk != null) {
-                hologramFutureRef[0].cancel(false);
-                citizensBeingProcessed.remove(citizen.getId());
-
-                // Timeout reached, spawn hologram if still needed
-                world.execute(() -> {
-                    WorldChunk chunk = world.getChunkIfLoaded(chunkIndex);
-                    if (chunk == null) {
-                        return;
-                    }
-
-                    boolean shouldSpawnHologram = citizen.getHologramLineUuids() == null || citizen.getHologramLineUuids().isEmpty();
-                    if (!shouldSpawnHologram) {
-                        for (UUID uuid : citizen.getHologramLineUuids()) {
-                            if (uuid == null || world.getEntityRef(uuid) == null) {
-                                shouldSpawnHologram = true;
-                                break;
-                            }
-                        }
-                    }
-
-                    if (shouldSpawnHologram) {
-                        plugin.getCitizensManager().spawnCitizenHologram(citizen, true);
-                    }
-                });
-
-                return;
+        // Try to spawn the citizen if it doesn't exist
+        if (entityRef == null) {
+            plugin.getCitizensManager().spawnCitizenNPC(citizen, true);
+        } else {
+            // Entity exists, update skin
+            if (citizen.isPlayerModel()) {
+                plugin.getCitizensManager().updateCitizenSkin(citizen, true);
             }
 
-            // Check if hologram entities are loaded
-            world.execute(() -> {
-                WorldChunk chunk = world.getChunkIfLoaded(chunkIndex);
-                if (chunk == null) {
-                    return;
-                }
-
-                boolean allHologramsExist = false;
-
-                if (citizen.getHologramLineUuids() != null && !citizen.getHologramLineUuids().isEmpty()) {
-                    allHologramsExist = true;
-                    for (UUID uuid : citizen.getHologramLineUuids()) {
-                        if (uuid == null || world.getEntityRef(uuid) == null) {
-                            allHologramsExist = false;
-                            break;
-                        }
-                    }
-                }
-
-                if (allHologramsExist) {
-                    // All hologram entities found, we're done
-                    hologramChecked[0] = true;
-                    hologramFutureRef[0].cancel(false);
-                    citizensBeingProcessed.remove(citizen.getId());
-                    getLogger().atInfo().log("Found hologram. Hologram UUID: "  + citizen.getHologramLineUuids() + " for " + citizen.getName());
-                } else if (citizen.getHologramLineUuids() == null || citizen.getHologramLineUuids().isEmpty()) {
-                    // No hologram UUIDs stored, spawn new hologram
-                    plugin.getCitizensManager().spawnCitizenHologram(citizen, true);
-                    hologramChecked[0] = true;
-                    hologramFutureRef[0].cancel(false);
-                    citizensBeingProcessed.remove(citizen.getId());
-                    getLogger().atInfo().log("DID NOT find hologram. Hologram UUID: "  + citizen.getHologramLineUuids() + " for " + citizen.getName());
-                }
-            });
+            // Update NPC ref
+            plugin.getCitizensManager().bindCitizenEntity(citizen, entityRef, citizen.getSpawnedUUID());
+        }
+    }
 
-        }, 100, 500, TimeUnit.MILLISECONDS);
+    // Runs on the world thread with the chunk loaded. Respawns the nametag if it is missing or still uses the old
+    // one entity per line layout
+    private void checkHologram(World world, CitizenData citizen) {
+        if (plugin.getCitizensManager().needsHologramRespawn(citizen, world)) {
+            plugin.getCitizensManager().spawnCitizenHologram(citizen, true);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,40 @@
+package com.electro.hycitizens.listeners;
+
+import com.electro.hycitizens.HyCitizensPlugin;
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.EntityEventSystem;
+import com.hypixel.hytale.server.core.universe.world.chunk.WorldChunk;
+import com.hypixel.hytale.server.core.universe.world.events.ecs.ChunkUnloadEvent;
+import com.hypixel.hytale.server.core.universe.world.storage.ChunkStore;
+
+import javax.annotation.Nonnull;
+
+public class ChunkUnloadListener extends EntityEventSystem<ChunkStore, ChunkUnloadEvent> {
+    private final HyCitizensPlugin plugin;
+
+    public ChunkUnloadListener(@Nonnull HyCitizensPlugin plugin) {
+        super(ChunkUnloadEvent.class);
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void handle(int index, @Nonnull ArchetypeChunk<ChunkStore> archetypeChunk, @Nonnull Store<ChunkStore> store, @Nonnull CommandBuffer<ChunkStore> commandBuffer, @Nonnull ChunkUnloadEvent event) {
+        if (plugin.getCitizensManager() == null)
+            return;
+
+        WorldChunk worldChunk = archetypeChunk.getComponent(index, WorldChunk.getComponentType());
+        if (worldChunk == null)
+            return;
+
+        plugin.getCitizensManager().onChunkUnloaded(worldChunk.getWorld(), worldChunk.getIndex());
+    }
+
+    @Nonnull
+    @Override
+    public Query<ChunkStore> getQuery() {
+        return WorldChunk.getComponentType();
+    }
+}
@@ -0,0 +1,130 @@
+package com.electro.hycitizens.listeners;
+
+import com.electro.hycitizens.HyCitizensPlugin;
+import com.electro.hycitizens.components.CitizenComponent;
+import com.electro.hycitizens.models.CitizenData;
+import com.hypixel.hytale.component.ArchetypeChunk;
+import com.hypixel.hytale.component.CommandBuffer;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.query.Query;
+import com.hypixel.hytale.component.system.tick.EntityTickingSystem;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.entity.UUIDComponent;
+import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.UUID;
+
+public class CitizenNametagListener extends EntityTickingSystem<EntityStore> {
+    private static final double LINE_SPACING = 0.25;
+    private static final double MOVE_EPSILON_SQ = 0.001 * 0.001;
+
+    private final HyCitizensPlugin plugin;
+
+    // Reused for every line write, TransformComponent copies the value
+    private final Vector3d linePos = new Vector3d();
+
+    public CitizenNametagListener(@Nonnull HyCitizensPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public void tick(float dt, int index, @Nonnull ArchetypeChunk<EntityStore> archetypeChunk, @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer) {
+        if (plugin.getCitizensManager() == null)
+            return;
+
+        Ref<EntityStore> npcRef = archetypeChunk.getReferenceTo(index);
+        CitizenComponent citizenComponent = store.getComponent(npcRef, CitizenComponent.getComponentType());
+        UUIDComponent uuidComponent = store.getComponent(npcRef, UUIDComponent.getComponentType());
+        TransformComponent npcTransform = store.getComponent(npcRef, TransformComponent.getComponentType());
+
+        assert citizenComponent != null;
+        assert uuidComponent != null;
+        assert npcTransform != null;
+
+        CitizenData citizen = plugin.getCitizensManager().getCitizen(citizenComponent.getCitizenId());
+        if (citizen == null)
+            return;
+
+        // Ignore stale copies of a citizen that are no longer the bound entity
+        if (!uuidComponent.getUuid().equals(citizen.getSpawnedUUID()))
+            return;
+
+        List<UUID> lineUuids = citizen.getHologramLineUuids();
+        int totalLines = lineUuids.size();
+        if (totalLines == 0)
+            return;
+
+        List<Ref<EntityStore>> lineRefs = citizen.getHologramLineRefs();
+        boolean resolved = false;
+        if (lineRefs.size() != totalLines || !allValid(lineRefs)) {
+            lineRefs = resolveLineRefs(store.getExternalData().getWorld(), citizen, lineUuids);
+            resolved = true;
+        }
+
+        boolean layoutChanged = citizen.refreshNametagLayout(totalLines);
+        Vector3d npcPosition = npcTransform.getPosition();
+
+        // Skip all line work while the parent stays put and the layout is unchanged
+        Vector3d lastAnchor = citizen.getLastNametagAnchor();
+        if (!resolved && !layoutChanged && lastAnchor != null) {
+            double dx = npcPosition.x - lastAnchor.x;
+            double dy = npcPosition.y - lastAnchor.y;
+            double dz = npcPosition.z - lastAnchor.z;
+
+            if (dx * dx + dy * dy + dz * dz < MOVE_EPSILON_SQ)
+                return;
+        }
+
+        double yOffset = citizen.getNametagYOffset();
+
+        for (int i = 0; i < totalLines; i++) {
+            Ref<EntityStore> lineRef = lineRefs.get(i);
+            if (lineRef == null || !lineRef.isValid())
+                continue;
+
+            TransformComponent lineTransform = store.getComponent(lineRef, TransformComponent.getComponentType());
+            if (lineTransform == null)
+                continue;
+
+            linePos.assign(npcPosition.x, npcPosition.y + yOffset + ((totalLines - 1 - i) * LINE_SPACING), npcPosition.z);
+            lineTransform.setPosition(linePos);
+        }
+
+        if (lastAnchor == null) {
+            citizen.setLastNametagAnchor(new Vector3d(npcPosition));
+        } else {
+            lastAnchor.assign(npcPosition);
+        }
+    }
+
+    @Nonnull
+    private static List<Ref<EntityStore>> resolveLineRefs(@Nonnull World world, @Nonnull CitizenData citizen, @Nonnull List<UUID> lineUuids) {
+        citizen.invalidateHologramLineRefs();
+
+        List<Ref<EntityStore>> lineRefs = citizen.getHologramLineRefs();
+        for (UUID uuid : lineUuids) {
+            lineRefs.add(uuid == null ? null : world.getEntityRef(uuid));
+        }
+
+        return lineRefs;
+    }
+
+    private static boolean allValid(@Nonnull List<Ref<EntityStore>> lineRefs) {
+        for (Ref<EntityStore> lineRef : lineRefs) {
+            if (lineRef == null || !lineRef.isValid())
+                return false;
+        }
+        return true;
+    }
+
+    @Nonnull
+    @Override
+    public Query<EntityStore> getQuery() {
+        return Query.and(new Query[]{CitizenComponent.getComponentType(), UUIDComponent.getComponentType(), TransformComponent.getComponentType()});
+    }
+}
@@ -0,0 +1,27 @@
+package com.electro.hycitizens.listeners;
+
+import com.electro.hycitizens.HyCitizensPlugin;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.component.system.tick.TickingSystem;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+public class CitizenTickListener extends TickingSystem<EntityStore> {
+    private final HyCitizensPlugin plugin;
+
+    public CitizenTickListener(@Nonnull HyCitizensPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // Runs once per world tick on the world thread and drives every citizen sub-system for that world
+    @Override
+    public void tick(float dt, int systemIndex, @Nonnull Store<EntityStore> store) {
+        if (plugin.getCitizensManager() == null)
+            return;
+
+        World world = store.getExternalData().getWorld();
+        plugin.getCitizensManager().getTickEngine().tick(world);
+    }
+}
@@ -1,9 +1,12 @@
 package com.electro.hycitizens.listeners;
 
 import com.electro.hycitizens.HyCitizensPlugin;
+import com.electro.hycitizens.components.CitizenComponent;
 import com.electro.hycitizens.events.CitizenInteractEvent;
 import com.electro.hycitizens.interactions.CitizenInteraction;
+import com.electro.hycitizens.models.AnimationTrigger;
 import com.electro.hycitizens.models.CitizenData;
+import com.electro.hycitizens.models.CitizenLifecycle;
 import com.electro.hycitizens.models.CommandAction;
 import com.hypixel.hytale.component.*;
 import com.hypixel.hytale.component.query.Query;
@@ -58,13 +61,23 @@ public class EntityDamageListener extends DamageEventSystem {
     public void handle(int i, @Nonnull ArchetypeChunk<EntityStore> archetypeChunk, @Nonnull Store<EntityStore> store, @Nonnull CommandBuffer<EntityStore> commandBuffer, @Nonnull Damage event) {
         Ref<EntityStore> targetRef = archetypeChunk.getReferenceTo(i);
         UUIDComponent uuidComponent = store.getComponent(targetRef, UUIDComponent.getComponentType());
+        CitizenComponent citizenComponent = store.getComponent(targetRef, CitizenComponent.getComponentType());
 
         assert uuidComponent != null;
+        assert citizenComponent != null;
         NPCEntity npcEntity = store.getComponent(targetRef, NPCEntity.getComponentType());
 
         if (npcEntity == null)
             return;
 
+        CitizenData citizen = plugin.getCitizensManager().getCitizen(citizenComponent.getCitizenId());
+        if (citizen == null)
+            return;
+
+        // Ignore stale copies of a citizen that are no longer the bound entity
+        if (citizen.getSpawnedUUID() != null && !citizen.getSpawnedUUID().equals(uuidComponent.getUuid()))
+            return;
+
         Damage.Source source = event.getSource();
         PlayerRef attackerPlayerRef;
 
@@ -88,103 +101,81 @@ public class EntityDamageListener extends DamageEventSystem {
         if (attackerPlayerRef == null)
             return;
 
-        // Todo: It would be best to give the citizens a custom component. There may be compatibility issues if citizens already exist though
-        List<CitizenData> citizens = HyCitizensPlugin.get().getCitizensManager().getAllCitizens();
-        for (CitizenData citizen : citizens) {
-            if (citizen.getSpawnedUUID() == null)
-                continue;
+        // Passive citizens always cancel damage - they never enter combat
+        boolean cancelDamage = !citizen.isTakesDamage() || "PASSIVE".equals(citizen.getAttitude());
 
-            if (!citizen.getSpawnedUUID().equals(uuidComponent.getUuid()))
-                continue;
+        // Trigger ON_ATTACK animations regardless of damage setting
+        HyCitizensPlugin.get().getCitizensManager().triggerAnimations(citizen, AnimationTrigger.ON_ATTACK);
 
-            // Passive citizens always cancel damage - they never enter combat
-            boolean cancelDamage = !citizen.isTakesDamage() || "PASSIVE".equals(citizen.getAttitude());
+        CitizenInteraction.handleInteraction(citizen, attackerPlayerRef);
 
-            // Trigger ON_ATTACK animations regardless of damage setting
-            HyCitizensPlugin.get().getCitizensManager().triggerAnimations(citizen, "ON_ATTACK");
-
-            CitizenInteraction.handleInteraction(citizen, attackerPlayerRef);
-
-            if (cancelDamage) {
-                event.setCancelled(true);
-                event.setAmount(0);
-                World world = Universe.get().getWorld(citizen.getWorldUUID());
-                // Todo: This does not work
+        if (cancelDamage) {
+            event.setCancelled(true);
+            event.setAmount(0);
+            World world = Universe.get().getWorld(citizen.getWorldUUID());
+            // Todo: This does not work
 //                if (world != null) {
 //                    // Prevent knockback
 //                    world.execute(() -> {
 //                        store.removeComponentIfExists(targetRef, KnockbackComponent.getComponentType());
 //                    });
 //                }
-                // Temporary solution to knockback
-                TransformComponent transformComponent = store.getComponent(targetRef, TransformComponent.getComponentType());
-                if (transformComponent != null && world != null) {
-                    Vector3d lockedPosition = new Vector3d(transformComponent.getPosition());
-
-                    ScheduledFuture<?> lockTask = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-                        if (!targetRef.isValid()) {
-                            return;
-                        }
-
-                        Vector3d currentPosition = transformComponent.getPosition();
-                        if (!currentPosition.equals(lockedPosition)) {
-                            transformComponent.setPosition(lockedPosition);
-                        }
-                    }, 0, 20, TimeUnit.MILLISECONDS);
-
-                    HytaleServer.SCHEDULED_EXECUTOR.schedule(() -> {
-                        lockTask.cancel(false);
-                    }, 2000, TimeUnit.MILLISECONDS);
-                }
-            }
-            else {
-                // Check if the citizen will die from this damage
-                EntityStatMap statMap = store.getComponent(targetRef, EntityStatsModule.get().getEntityStatMapComponentType());
-                if (statMap == null) {
-                    return;
-                }
-
-                float currentHealth = statMap.get(DefaultEntityStatTypes.getHealth()).get();
-                float damageAmount = event.getAmount();
+            // Temporary solution to knockback
+            TransformComponent transformComponent = store.getComponent(targetRef, TransformComponent.getComponentType());
+            if (transformComponent != null && world != null) {
+                Vector3d lockedPosition = new Vector3d(transformComponent.getPosition());
+
+                ScheduledFuture<?> lockTask = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
+                    if (!targetRef.isValid()) {
+                        return;
+                    }
 
-                if (currentHealth - damageAmount <= 0) {
-                    long now = System.currentTimeMillis();
+                    Vector3d currentPosition = transformComponent.getPosition();
+                    if (!currentPosition.equals(lockedPosition)) {
+                        transformComponent.setPosition(lockedPosition);
+                    }
+                }, 0, 20, TimeUnit.MILLISECONDS);
 
-                    if (!citizen.isAwaitingRespawn()) {
-                        citizen.setLastDeathTime(now);
+                HytaleServer.SCHEDULED_EXECUTOR.schedule(() -> {
+                    lockTask.cancel(false);
+                }, 2000, TimeUnit.MILLISECONDS);
+            }
+        }
+        else {
+            // Check if the citizen will die from this damage
+            EntityStatMap statMap = store.getComponent(targetRef, EntityStatsModule.get().getEntityStatMapComponentType());
+            if (statMap == null) {
+                return;
+            }
 
-                        // Despawn nametag
-                        plugin.getCitizensManager().despawnCitizenHologram(citizen);
+            float currentHealth = statMap.get(DefaultEntityStatTypes.getHealth()).get();
+            float damageAmount = event.getAmount();
 
-                        citizen.setSpawnedUUID(null);
-                        citizen.setNpcRef(null);
+            if (currentHealth - damageAmount <= 0) {
+                long now = System.currentTimeMillis();
 
-                        // Mark for respawn
-                        if (citizen.isRespawnOnDeath()) {
-                            citizen.setAwaitingRespawn(true);
+                // Only the first lethal hit is handled. Later hits, and citizens that are not fully spawned, are ignored
+                CitizenLifecycle afterDeath = citizen.isRespawnOnDeath() ? CitizenLifecycle.DEAD_AWAITING_RESPAWN : CitizenLifecycle.UNLOADED;
+                if (citizen.compareAndSetLifecycle(CitizenLifecycle.SPAWNED, afterDeath)) {
+                    // Despawn nametag
+                    plugin.getCitizensManager().despawnCitizenHologram(citizen);
 
-                            HytaleServer.SCHEDULED_EXECUTOR.schedule(() -> {
-                                World world = Universe.get().getWorld(citizen.getWorldUUID());
-                                if (world == null)
-                                    return;
+                    // The dying entity is no longer this citizen's, drop it from every lookup
+                    plugin.getCitizensManager().unbindCitizenEntity(citizen);
 
-                                citizen.setAwaitingRespawn(false);
-                                world.execute(() -> {
-                                    plugin.getCitizensManager().spawnCitizen(citizen, true);
-                                });
-                            }, (long)(citizen.getRespawnDelaySeconds() * 1000), TimeUnit.MILLISECONDS);
-                        }
+                    // Mark for respawn
+                    if (citizen.isRespawnOnDeath()) {
+                        citizen.setRespawnAt(now + (long) (citizen.getRespawnDelaySeconds() * 1000));
+                        plugin.getCitizensManager().scheduleRespawn(citizen);
                     }
                 }
             }
-
-            break;
         }
     }
 
     @Nullable
     public Query<EntityStore> getQuery() {
-        return Query.and(new Query[]{UUIDComponent.getComponentType()});
+        return Query.and(new Query[]{UUIDComponent.getComponentType(), CitizenComponent.getComponentType()});
     }
 
     @Nullable
@@ -0,0 +1,60 @@
+package com.electro.hycitizens.listeners;
+
+import com.electro.hycitizens.HyCitizensPlugin;
+import com.electro.hycitizens.interactions.CitizenInteraction;
+import com.electro.hycitizens.models.AnimationTrigger;
+import com.electro.hycitizens.models.CitizenData;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.component.Store;
+import com.hypixel.hytale.protocol.InteractionType;
+import com.hypixel.hytale.server.core.event.events.player.PlayerInteractEvent;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+import com.hypixel.hytale.server.npc.entities.NPCEntity;
+
+import javax.annotation.Nonnull;
+
+// Static citizens have no role to run the interact action and no NPC for the damage system, so their use and attack
+// interactions are picked up here
+public class StaticCitizenInteractListener {
+    private final HyCitizensPlugin plugin;
+
+    public StaticCitizenInteractListener(@Nonnull HyCitizensPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void onPlayerInteract(@Nonnull PlayerInteractEvent event) {
+        if (plugin.getCitizensManager() == null)
+            return;
+
+        Ref<EntityStore> targetRef = event.getTargetRef();
+        if (targetRef == null || !targetRef.isValid())
+            return;
+
+        Store<EntityStore> store = targetRef.getStore();
+
+        // NPC citizens are handled by their role and the damage listener
+        if (store.getComponent(targetRef, NPCEntity.getComponentType()) != null)
+            return;
+
+        CitizenData citizen = plugin.getCitizensManager().getCitizenForEntity(targetRef, store);
+        if (citizen == null)
+            return;
+
+        PlayerRef playerRef = store.getComponent(event.getPlayerRef(), PlayerRef.getComponentType());
+        if (playerRef == null)
+            return;
+
+        InteractionType type = event.getActionType();
+        if (type == InteractionType.Use) {
+            if (!citizen.getFKeyInteractionEnabled())
+                return;
+        } else if (type == InteractionType.Primary) {
+            plugin.getCitizensManager().triggerAnimations(citizen, AnimationTrigger.ON_ATTACK);
+        } else {
+            return;
+        }
+
+        CitizenInteraction.handleInteraction(citizen, playerRef);
+    }
+}
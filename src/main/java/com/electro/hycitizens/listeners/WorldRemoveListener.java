@@ -0,0 +1,21 @@
+package com.electro.hycitizens.listeners;
+
+import com.electro.hycitizens.HyCitizensPlugin;
+import com.hypixel.hytale.server.core.universe.world.events.RemoveWorldEvent;
+
+import javax.annotation.Nonnull;
+
+public class WorldRemoveListener {
+    private final HyCitizensPlugin plugin;
+
+    public WorldRemoveListener(@Nonnull HyCitizensPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public void onWorldRemove(@Nonnull RemoveWorldEvent event) {
+        if (plugin.getCitizensManager() == null)
+            return;
+
+        plugin.getCitizensManager().onWorldRemoved(event.getWorld().getWorldConfig().getUuid());
+    }
+}
@@ -0,0 +1,73 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import com.electro.hycitizens.util.ConfigManager;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.LongAdder;
+
+// Settings for swapping wandering and combat citizens to a static role while no player is nearby. Citizens wake inside
+// the wake radius but only go dormant once every player is past the larger sleep radius for the sleep delay
+public class AiDormancy {
+    public static final float DEFAULT_WAKE_RADIUS = 64.0f;
+    public static final float DEFAULT_SLEEP_RADIUS = 96.0f;
+    public static final float DEFAULT_SLEEP_DELAY_SECONDS = 10.0f;
+    public static final long CHECK_INTERVAL_MS = 1000;
+
+    private volatile boolean enabled = true;
+    private volatile float wakeRadius = DEFAULT_WAKE_RADIUS;
+    private volatile float sleepRadius = DEFAULT_SLEEP_RADIUS;
+    private volatile long sleepDelayMs = (long) (DEFAULT_SLEEP_DELAY_SECONDS * 1000);
+
+    private final LongAdder slept = new LongAdder();
+    private final LongAdder woken = new LongAdder();
+
+    public void configure(@Nonnull ConfigManager config) {
+        enabled = config.getBoolean("ai-dormancy.enabled", true);
+        wakeRadius = Math.max(1.0f, config.getFloat("ai-dormancy.wake-radius", DEFAULT_WAKE_RADIUS));
+        sleepRadius = Math.max(wakeRadius, config.getFloat("ai-dormancy.sleep-radius", DEFAULT_SLEEP_RADIUS));
+        sleepDelayMs = (long) (Math.max(0.0f, config.getFloat("ai-dormancy.sleep-delay-seconds", DEFAULT_SLEEP_DELAY_SECONDS)) * 1000);
+    }
+
+    // Idle passive citizens already run a cheap role and static ones have none, so only wandering or non-passive NPCs
+    // are worth swapping
+    public static boolean isEligible(@Nonnull CitizenData citizen) {
+        if (citizen.isStaticMode()) {
+            return false;
+        }
+
+        return !citizen.getMovementBehavior().isIdle() || !"PASSIVE".equals(citizen.getAttitude());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public float getWakeRadius() {
+        return wakeRadius;
+    }
+
+    public float getSleepRadius() {
+        return sleepRadius;
+    }
+
+    public long getSleepDelayMs() {
+        return sleepDelayMs;
+    }
+
+    public void recordSlept() {
+        slept.increment();
+    }
+
+    public void recordWoken() {
+        woken.increment();
+    }
+
+    public long getSlept() {
+        return slept.sum();
+    }
+
+    public long getWoken() {
+        return woken.sum();
+    }
+}
@@ -0,0 +1,68 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.util.TimingWheel;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.protocol.AnimationSlot;
+import com.hypixel.hytale.server.core.entity.AnimationUtils;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+
+// Pending "stop after time" animations for one world. One timer per citizen and slot, fired from the world tick
+public class AnimationStopTimers implements CitizenTickEngine.Handler {
+    private static final long WHEEL_TICK_MS = 50;
+    private static final int WHEEL_SLOTS = 256;
+    private static final AnimationSlot[] SLOTS = AnimationSlot.values();
+
+    private final TimingWheel<StopKey, StopAction> wheel = new TimingWheel<>(WHEEL_TICK_MS, WHEEL_SLOTS);
+    private final StopSink sink;
+
+    private record StopKey(@Nonnull String citizenId, int slot) {
+    }
+
+    private record StopAction(@Nonnull Ref<EntityStore> npcRef, int slot, @Nonnull String animationName) {
+    }
+
+    // Plays the stop animation once a timer is due
+    @FunctionalInterface
+    interface StopSink {
+        void stop(@Nonnull Ref<EntityStore> npcRef, int slot, @Nonnull String animationName);
+    }
+
+    public AnimationStopTimers() {
+        this(AnimationStopTimers::playStopAnimation);
+    }
+
+    AnimationStopTimers(@Nonnull StopSink sink) {
+        this.sink = sink;
+    }
+
+    // Replaces any pending stop for the same citizen and slot
+    public void schedule(@Nonnull String citizenId, int slot, @Nonnull Ref<EntityStore> npcRef, @Nonnull String stopAnimationName, long delayMs) {
+        scheduleAt(citizenId, slot, npcRef, stopAnimationName, System.currentTimeMillis() + delayMs);
+    }
+
+    void scheduleAt(@Nonnull String citizenId, int slot, @Nonnull Ref<EntityStore> npcRef, @Nonnull String stopAnimationName, long stopAt) {
+        wheel.schedule(new StopKey(citizenId, slot), new StopAction(npcRef, slot, stopAnimationName), stopAt);
+    }
+
+    public void cancel(@Nonnull String citizenId, int slot) {
+        wheel.cancel(new StopKey(citizenId, slot));
+    }
+
+    public int size() {
+        return wheel.size();
+    }
+
+    @Override
+    public void beginTick(long now) {
+        wheel.advance(now, (key, action) -> sink.stop(action.npcRef(), action.slot(), action.animationName()));
+    }
+
+    private static void playStopAnimation(@Nonnull Ref<EntityStore> npcRef, int slot, @Nonnull String animationName) {
+        if (!npcRef.isValid())
+            return;
+
+        AnimationUtils.playAnimation(npcRef, SLOTS[slot], animationName, false, npcRef.getStore());
+    }
+}
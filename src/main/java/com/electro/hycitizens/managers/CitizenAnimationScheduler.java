@@ -0,0 +1,233 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.AnimationBehavior;
+import com.electro.hycitizens.models.AnimationTrigger;
+import com.electro.hycitizens.models.CitizenData;
+import com.electro.hycitizens.util.TimingWheel;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+// Fires TIMED and DEFAULT animations for one world from a timing wheel, so each tick only touches the firings that are due
+public class CitizenAnimationScheduler implements CitizenTickEngine.Handler {
+    private static final long WHEEL_TICK_MS = 100;
+    private static final int WHEEL_SLOTS = 512;
+    private static final long DEFAULT_REFRESH_MS = 2000;
+    private static final long MIN_INTERVAL_MS = WHEEL_TICK_MS;
+
+    // DEFAULT animations are only refreshed while a player is close enough to be tracking the citizen
+    private static final double OBSERVER_RANGE = 48.0;
+    private static final long OBSERVER_CHECK_MS = 500;
+
+    private final CitizensManager manager;
+    private final World world;
+    private final UUID worldUUID;
+    private final Set<CitizenData> pendingReschedule;
+    private final TimingWheel<AnimationKey, CitizenData> wheel = new TimingWheel<>(WHEEL_TICK_MS, WHEEL_SLOTS);
+    private final Map<String, Integer> scheduledCounts = new HashMap<>();
+    private final Map<String, CitizenData> defaultCitizens = new HashMap<>();
+    private final Map<String, Set<UUID>> observersByCitizen = new HashMap<>();
+    // DEFAULT refreshes that came due while nobody was watching. They leave the wheel until an observer shows up
+    private final Map<String, List<AnimationKey>> parkedDefaults = new HashMap<>();
+    private final PlayerSpatialGrid observerGrid = new PlayerSpatialGrid();
+    private Set<UUID> scratchObservers = new HashSet<>();
+    private long nextObserverCheck;
+    private long now;
+
+    private record AnimationKey(@Nonnull String citizenId, int behaviorIndex) {
+    }
+
+    public CitizenAnimationScheduler(@Nonnull CitizensManager manager, @Nonnull World world, @Nonnull Set<CitizenData> pendingReschedule) {
+        this.manager = manager;
+        this.world = world;
+        this.worldUUID = world.getWorldConfig().getUuid();
+        this.pendingReschedule = pendingReschedule;
+    }
+
+    @Override
+    public void beginTick(long now) {
+        this.now = now;
+
+        if (!pendingReschedule.isEmpty()) {
+            Iterator<CitizenData> iterator = pendingReschedule.iterator();
+            while (iterator.hasNext()) {
+                CitizenData citizen = iterator.next();
+                iterator.remove();
+                reschedule(citizen);
+            }
+        }
+
+        if (now >= nextObserverCheck) {
+            nextObserverCheck = now + OBSERVER_CHECK_MS;
+            updateObservers();
+        }
+
+        wheel.advance(now, this::fire);
+    }
+
+    private void updateObservers() {
+        if (defaultCitizens.isEmpty()) {
+            return;
+        }
+
+        // With nobody online every citizen is unobserved, and the ones still cycling park on their next refresh
+        if (world.getPlayerRefs().isEmpty()) {
+            observersByCitizen.clear();
+            return;
+        }
+
+        observerGrid.rebuild(world.getPlayerRefs());
+
+        Iterator<CitizenData> iterator = defaultCitizens.values().iterator();
+        while (iterator.hasNext()) {
+            CitizenData citizen = iterator.next();
+            if (manager.getCitizen(citizen.getId()) != citizen || !isBoundHere(citizen)) {
+                iterator.remove();
+                observersByCitizen.remove(citizen.getId());
+                parkedDefaults.remove(citizen.getId());
+                continue;
+            }
+
+            Set<UUID> current = scratchObservers;
+            if (!observerGrid.isEmpty()) {
+                observerGrid.forEachWithin(citizen.getPosition().x, citizen.getPosition().z, OBSERVER_RANGE,
+                        (playerRef, distSq) -> current.add(playerRef.getUuid()));
+            }
+
+            Set<UUID> previous = observersByCitizen.get(citizen.getId());
+            boolean newObserver = previous == null ? !current.isEmpty() : !previous.containsAll(current);
+
+            // Keep the set that was just filled and recycle the old one
+            if (previous != null) {
+                previous.clear();
+                scratchObservers = previous;
+            } else {
+                scratchObservers = new HashSet<>();
+            }
+            observersByCitizen.put(citizen.getId(), current);
+
+            // A player that just came into range has not seen the looping animation yet
+            if (newObserver) {
+                playDefaultAnimations(citizen);
+                unpark(citizen);
+            }
+        }
+
+        observerGrid.clear();
+    }
+
+    private void playDefaultAnimations(@Nonnull CitizenData citizen) {
+        Ref<EntityStore> npcRef = citizen.getNpcRef();
+        if (npcRef == null || !npcRef.isValid()) {
+            return;
+        }
+
+        for (AnimationBehavior ab : citizen.getAnimationBehaviors(AnimationTrigger.DEFAULT)) {
+            manager.playAnimationForCitizen(citizen, ab.getAnimationName(), ab.getAnimationSlot(), ab);
+        }
+    }
+
+    private void unpark(@Nonnull CitizenData citizen) {
+        List<AnimationKey> parked = parkedDefaults.remove(citizen.getId());
+        if (parked == null) {
+            return;
+        }
+
+        for (AnimationKey key : parked) {
+            wheel.schedule(key, citizen, now + DEFAULT_REFRESH_MS);
+        }
+    }
+
+    private boolean isObserved(@Nonnull CitizenData citizen) {
+        Set<UUID> observers = observersByCitizen.get(citizen.getId());
+        return observers != null && !observers.isEmpty();
+    }
+
+    private void reschedule(@Nonnull CitizenData citizen) {
+        String citizenId = citizen.getId();
+
+        Integer previousCount = scheduledCounts.remove(citizenId);
+        if (previousCount != null) {
+            for (int i = 0; i < previousCount; i++) {
+                wheel.cancel(new AnimationKey(citizenId, i));
+            }
+        }
+
+        defaultCitizens.remove(citizenId);
+        observersByCitizen.remove(citizenId);
+        parkedDefaults.remove(citizenId);
+
+        if (!isBoundHere(citizen)) {
+            return;
+        }
+
+        List<AnimationBehavior> behaviors = citizen.getAnimationBehaviors();
+        boolean scheduled = false;
+
+        for (int i = 0; i < behaviors.size(); i++) {
+            AnimationTrigger trigger = behaviors.get(i).getTrigger();
+            if (trigger == AnimationTrigger.TIMED) {
+                wheel.schedule(new AnimationKey(citizenId, i), citizen, now);
+                scheduled = true;
+            } else if (trigger == AnimationTrigger.DEFAULT) {
+                // The first refresh waits for the observer check, which plays it as soon as someone is in range
+                wheel.schedule(new AnimationKey(citizenId, i), citizen, now + DEFAULT_REFRESH_MS);
+                defaultCitizens.put(citizenId, citizen);
+                scheduled = true;
+            }
+        }
+
+        if (scheduled) {
+            scheduledCounts.put(citizenId, behaviors.size());
+        }
+    }
+
+    private void fire(@Nonnull AnimationKey key, @Nonnull CitizenData citizen) {
+        // Drop firings for citizens that were removed, replaced or moved away. Rebinding queues a fresh schedule
+        if (manager.getCitizen(key.citizenId()) != citizen || !isBoundHere(citizen)) {
+            return;
+        }
+
+        AnimationBehavior ab = citizen.getAnimationBehaviorAt(key.behaviorIndex());
+        if (ab == null) {
+            return;
+        }
+
+        long intervalMs;
+        if (ab.getTrigger() == AnimationTrigger.DEFAULT) {
+            // DEFAULT animations loop every 2 seconds to keep them playing, but only while someone can see them.
+            // Unobserved ones wait outside the wheel and the observer check puts them back
+            if (!isObserved(citizen)) {
+                parkedDefaults.computeIfAbsent(key.citizenId(), k -> new ArrayList<>(1)).add(key);
+                return;
+            }
+
+            intervalMs = DEFAULT_REFRESH_MS;
+        } else if (ab.getTrigger() == AnimationTrigger.TIMED) {
+            intervalMs = Math.max(MIN_INTERVAL_MS, (long) (ab.getIntervalSeconds() * 1000));
+        } else {
+            return;
+        }
+
+        Ref<EntityStore> npcRef = citizen.getNpcRef();
+        if (npcRef != null && npcRef.isValid()) {
+            manager.playAnimationForCitizen(citizen, ab.getAnimationName(), ab.getAnimationSlot(), ab);
+        }
+
+        wheel.schedule(key, citizen, now + intervalMs);
+    }
+
+    private boolean isBoundHere(@Nonnull CitizenData citizen) {
+        return citizen.getNpcRef() != null && worldUUID.equals(citizen.getWorldUUID());
+    }
+}
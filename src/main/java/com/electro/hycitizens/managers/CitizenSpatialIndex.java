@@ -0,0 +1,219 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.math.vector.Vector3d;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import javax.annotation.Nonnull;
+import java.util.*;
+import java.util.function.Consumer;
+
+public class CitizenSpatialIndex {
+    private final Map<UUID, Long2ObjectOpenHashMap<List<CitizenData>>> chunksByWorld = new HashMap<>();
+    private final Map<String, Placement> placements = new HashMap<>();
+    // Citizens whose entity was saved with a chunk other than their home chunk. They are restored with that chunk
+    private final Map<UUID, Long2ObjectOpenHashMap<List<CitizenData>>> awayChunksByWorld = new HashMap<>();
+    private final Map<String, Placement> awayPlacements = new HashMap<>();
+
+    private record Placement(UUID worldUUID, long chunkIndex) {
+    }
+
+    public synchronized void clear() {
+        chunksByWorld.clear();
+        placements.clear();
+        awayChunksByWorld.clear();
+        awayPlacements.clear();
+    }
+
+    public synchronized void update(@Nonnull CitizenData citizen) {
+        Placement placement = new Placement(citizen.getWorldUUID(), chunkIndexOf(citizen));
+        Placement previous = placements.put(citizen.getId(), placement);
+
+        if (placement.equals(previous)) {
+            return;
+        }
+
+        if (previous != null) {
+            removeFromChunk(chunksByWorld, previous, citizen);
+        }
+
+        addToChunk(chunksByWorld, placement, citizen);
+    }
+
+    public synchronized void remove(@Nonnull CitizenData citizen) {
+        Placement previous = placements.remove(citizen.getId());
+        if (previous != null) {
+            removeFromChunk(chunksByWorld, previous, citizen);
+        }
+
+        clearAway(citizen);
+    }
+
+    // Records that the citizen's entity was saved with the given chunk, or clears that when it is the home chunk
+    public synchronized void markAway(@Nonnull CitizenData citizen, long chunkIndex) {
+        clearAway(citizen);
+        if (chunkIndex == chunkIndexOf(citizen)) {
+            return;
+        }
+
+        Placement placement = new Placement(citizen.getWorldUUID(), chunkIndex);
+        awayPlacements.put(citizen.getId(), placement);
+        addToChunk(awayChunksByWorld, placement, citizen);
+    }
+
+    public synchronized void clearAway(@Nonnull CitizenData citizen) {
+        Placement previous = awayPlacements.remove(citizen.getId());
+        if (previous != null) {
+            removeFromChunk(awayChunksByWorld, previous, citizen);
+        }
+    }
+
+    public synchronized boolean isAway(@Nonnull CitizenData citizen) {
+        return awayPlacements.containsKey(citizen.getId());
+    }
+
+    // Citizens whose entity was saved with this chunk although their home is elsewhere
+    @Nonnull
+    public synchronized List<CitizenData> getCitizensAwayInChunk(@Nonnull UUID worldUUID, long chunkIndex) {
+        Long2ObjectOpenHashMap<List<CitizenData>> chunks = awayChunksByWorld.get(worldUUID);
+        if (chunks == null) {
+            return Collections.emptyList();
+        }
+
+        List<CitizenData> inChunk = chunks.get(chunkIndex);
+        return inChunk == null ? Collections.emptyList() : new ArrayList<>(inChunk);
+    }
+
+    @Nonnull
+    public synchronized List<CitizenData> getCitizensInChunk(@Nonnull UUID worldUUID, long chunkIndex) {
+        Long2ObjectOpenHashMap<List<CitizenData>> chunks = chunksByWorld.get(worldUUID);
+        if (chunks == null) {
+            return Collections.emptyList();
+        }
+
+        List<CitizenData> inChunk = chunks.get(chunkIndex);
+        return inChunk == null ? Collections.emptyList() : new ArrayList<>(inChunk);
+    }
+
+    @Nonnull
+    public synchronized List<CitizenData> getCitizensNear(@Nonnull UUID worldUUID, @Nonnull Vector3d position, double maxDistance) {
+        List<CitizenData> nearby = new ArrayList<>();
+        double maxDistSq = maxDistance * maxDistance;
+
+        Long2ObjectOpenHashMap<List<CitizenData>> chunks = chunksByWorld.get(worldUUID);
+        if (chunks == null) {
+            return nearby;
+        }
+
+        forEachChunkInRange(chunks, position.x - maxDistance, position.z - maxDistance,
+                position.x + maxDistance, position.z + maxDistance, citizen -> {
+            Vector3d citizenPos = citizen.getPosition();
+
+            double dx = citizenPos.x - position.x;
+            double dy = citizenPos.y - position.y;
+            double dz = citizenPos.z - position.z;
+
+            if (dx * dx + dy * dy + dz * dz <= maxDistSq) {
+                nearby.add(citizen);
+            }
+        });
+
+        return nearby;
+    }
+
+    @Nonnull
+    public synchronized List<CitizenData> getCitizensInBox(@Nonnull UUID worldUUID, @Nonnull Vector3d min, @Nonnull Vector3d max) {
+        List<CitizenData> inBox = new ArrayList<>();
+
+        Long2ObjectOpenHashMap<List<CitizenData>> chunks = chunksByWorld.get(worldUUID);
+        if (chunks == null) {
+            return inBox;
+        }
+
+        forEachChunkInRange(chunks, min.x, min.z, max.x, max.z, citizen -> {
+            Vector3d pos = citizen.getPosition();
+            if (pos.x >= min.x && pos.x <= max.x
+                    && pos.y >= min.y && pos.y <= max.y
+                    && pos.z >= min.z && pos.z <= max.z) {
+                inBox.add(citizen);
+            }
+        });
+
+        return inBox;
+    }
+
+    @Nonnull
+    public synchronized Set<UUID> getWorlds() {
+        return new HashSet<>(chunksByWorld.keySet());
+    }
+
+    public static long chunkIndexOf(@Nonnull CitizenData citizen) {
+        return ChunkUtil.indexChunkFromBlock(citizen.getPosition().x, citizen.getPosition().z);
+    }
+
+    private void forEachChunkInRange(@Nonnull Long2ObjectOpenHashMap<List<CitizenData>> chunks,
+                                     double minX, double minZ, double maxX, double maxZ,
+                                     @Nonnull Consumer<CitizenData> consumer) {
+        int minChunkX = ChunkUtil.chunkCoordinate((int) Math.floor(minX));
+        int minChunkZ = ChunkUtil.chunkCoordinate((int) Math.floor(minZ));
+        int maxChunkX = ChunkUtil.chunkCoordinate((int) Math.floor(maxX));
+        int maxChunkZ = ChunkUtil.chunkCoordinate((int) Math.floor(maxZ));
+
+        // Large queries are cheaper to answer from the populated chunks than by probing empty ones
+        long probeCount = (long) (maxChunkX - minChunkX + 1) * (maxChunkZ - minChunkZ + 1);
+        if (probeCount > chunks.size()) {
+            for (Long2ObjectMap.Entry<List<CitizenData>> entry : chunks.long2ObjectEntrySet()) {
+                long chunkIndex = entry.getLongKey();
+                int chunkX = ChunkUtil.xOfChunkIndex(chunkIndex);
+                int chunkZ = ChunkUtil.zOfChunkIndex(chunkIndex);
+                if (chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ) {
+                    entry.getValue().forEach(consumer);
+                }
+            }
+            return;
+        }
+
+        for (int chunkX = minChunkX; chunkX <= maxChunkX; chunkX++) {
+            for (int chunkZ = minChunkZ; chunkZ <= maxChunkZ; chunkZ++) {
+                List<CitizenData> inChunk = chunks.get(ChunkUtil.indexChunk(chunkX, chunkZ));
+                if (inChunk != null) {
+                    inChunk.forEach(consumer);
+                }
+            }
+        }
+    }
+
+    private static void addToChunk(@Nonnull Map<UUID, Long2ObjectOpenHashMap<List<CitizenData>>> byWorld,
+                                   @Nonnull Placement placement, @Nonnull CitizenData citizen) {
+        Long2ObjectOpenHashMap<List<CitizenData>> chunks = byWorld.computeIfAbsent(placement.worldUUID(), k -> new Long2ObjectOpenHashMap<>());
+        List<CitizenData> inChunk = chunks.get(placement.chunkIndex());
+        if (inChunk == null) {
+            inChunk = new ArrayList<>();
+            chunks.put(placement.chunkIndex(), inChunk);
+        }
+        inChunk.add(citizen);
+    }
+
+    private static void removeFromChunk(@Nonnull Map<UUID, Long2ObjectOpenHashMap<List<CitizenData>>> byWorld,
+                                        @Nonnull Placement placement, @Nonnull CitizenData citizen) {
+        Long2ObjectOpenHashMap<List<CitizenData>> chunks = byWorld.get(placement.worldUUID());
+        if (chunks == null) {
+            return;
+        }
+
+        List<CitizenData> inChunk = chunks.get(placement.chunkIndex());
+        if (inChunk == null) {
+            return;
+        }
+
+        inChunk.remove(citizen);
+        if (inChunk.isEmpty()) {
+            chunks.remove(placement.chunkIndex());
+            if (chunks.isEmpty()) {
+                byWorld.remove(placement.worldUUID());
+            }
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import com.hypixel.hytale.component.Ref;
+import com.hypixel.hytale.server.core.universe.world.World;
+import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static com.hypixel.hytale.logger.HytaleLogger.getLogger;
+
+public class CitizenTickEngine {
+    private final CitizenWorldRegistry worldRegistry;
+    private final List<Registration> registrations = new CopyOnWriteArrayList<>();
+    private final Map<UUID, WorldState> worldStates = new ConcurrentHashMap<>();
+
+    // One handler instance is created per world, so handlers only ever run on that world's thread
+    public interface Handler {
+        default void beginTick(long now) {
+        }
+
+        default void tickCitizen(@Nonnull CitizenData citizen, long now) {
+        }
+
+        default void endTick(long now) {
+        }
+    }
+
+    private record Registration(@Nonnull String name, long intervalMs, boolean requiresPlayers, boolean perCitizen,
+                                @Nonnull Function<World, Handler> factory) {
+    }
+
+    private static final class WorldState {
+        private final Handler[] handlers;
+        private final String[] names;
+        private final long[] nextRunAt;
+        private final int[] due;
+        private final int[] dueCitizen;
+
+        private WorldState(@Nonnull World world, @Nonnull List<Registration> registrations) {
+            this.handlers = new Handler[registrations.size()];
+            this.names = new String[registrations.size()];
+            this.nextRunAt = new long[registrations.size()];
+            this.due = new int[registrations.size()];
+            this.dueCitizen = new int[registrations.size()];
+
+            for (int i = 0; i < handlers.length; i++) {
+                handlers[i] = registrations.get(i).factory().apply(world);
+                names[i] = registrations.get(i).name();
+            }
+        }
+    }
+
+    public CitizenTickEngine(@Nonnull CitizenWorldRegistry worldRegistry) {
+        this.worldRegistry = worldRegistry;
+    }
+
+    public void register(@Nonnull String name, long intervalMs, boolean requiresPlayers, @Nonnull Function<World, Handler> factory) {
+        addRegistration(new Registration(name, intervalMs, requiresPlayers, true, factory));
+    }
+
+    // Handlers that keep their own schedule only get beginTick/endTick and never join the per-citizen pass
+    public void registerWorldTask(@Nonnull String name, long intervalMs, boolean requiresPlayers, @Nonnull Function<World, Handler> factory) {
+        addRegistration(new Registration(name, intervalMs, requiresPlayers, false, factory));
+    }
+
+    private void addRegistration(@Nonnull Registration registration) {
+        registrations.add(registration);
+
+        // Rebuild per-world handler sets on their next tick
+        worldStates.clear();
+    }
+
+    // Called once per world tick on the world thread
+    public void tick(@Nonnull World world) {
+        if (registrations.isEmpty()) {
+            return;
+        }
+
+        UUID worldUUID = world.getWorldConfig().getUuid();
+        WorldState state = worldStates.computeIfAbsent(worldUUID, k -> new WorldState(world, registrations));
+
+        long now = System.currentTimeMillis();
+        boolean hasPlayers = !world.getPlayerRefs().isEmpty();
+
+        int dueCount = 0;
+        int dueCitizenCount = 0;
+        for (int i = 0; i < state.handlers.length; i++) {
+            if (now < state.nextRunAt[i]) {
+                continue;
+            }
+
+            Registration registration = registrations.get(i);
+            state.nextRunAt[i] = now + registration.intervalMs();
+
+            if (registration.requiresPlayers() && !hasPlayers) {
+                continue;
+            }
+
+            state.due[dueCount++] = i;
+            if (registration.perCitizen()) {
+                state.dueCitizen[dueCitizenCount++] = i;
+            }
+        }
+
+        if (dueCount == 0) {
+            return;
+        }
+
+        // This runs inside the world tick, so a failing handler is logged and skipped rather than breaking the others
+        for (int i = 0; i < dueCount; i++) {
+            int handler = state.due[i];
+            try {
+                state.handlers[handler].beginTick(now);
+            } catch (Exception e) {
+                getLogger().atWarning().log("Citizen tick handler '" + state.names[handler] + "' failed to begin its tick: " + e.getMessage());
+            }
+        }
+
+        // Single pass over the world's citizens for every due handler
+        if (dueCitizenCount > 0) {
+            // Citizens in unloaded chunks are dormant and not part of the snapshot
+            for (CitizenData citizen : worldRegistry.getSnapshot(worldUUID).citizens()) {
+                Ref<EntityStore> npcRef = citizen.getNpcRef();
+                if (npcRef == null || !npcRef.isValid())
+                    continue;
+
+                for (int i = 0; i < dueCitizenCount; i++) {
+                    int handler = state.dueCitizen[i];
+                    try {
+                        state.handlers[handler].tickCitizen(citizen, now);
+                    } catch (Exception e) {
+                        getLogger().atWarning().log("Citizen tick handler '" + state.names[handler] + "' failed for citizen " + citizen.getId() + ": " + e.getMessage());
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < dueCount; i++) {
+            int handler = state.due[i];
+            try {
+                state.handlers[handler].endTick(now);
+            } catch (Exception e) {
+                getLogger().atWarning().log("Citizen tick handler '" + state.names[handler] + "' failed to end its tick: " + e.getMessage());
+            }
+        }
+    }
+
+    // Drops the world's handlers along with whatever they were still holding
+    public void removeWorld(@Nonnull UUID worldUUID) {
+        worldStates.remove(worldUUID);
+    }
+
+    public void shutdown() {
+        registrations.clear();
+        worldStates.clear();
+    }
+}
@@ -0,0 +1,122 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+
+import javax.annotation.Nonnull;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CitizenWorldRegistry {
+    private final Map<UUID, WorldMembers> membersByWorld = new ConcurrentHashMap<>();
+    private final Map<String, UUID> worldByCitizen = new ConcurrentHashMap<>();
+    private final Map<String, CitizenData> dormant = new ConcurrentHashMap<>();
+
+    // Immutable view of the spawned citizens in a world. A new snapshot is only built when membership changed since the last one
+    public record Snapshot(long version, @Nonnull List<CitizenData> citizens) {
+        public static final Snapshot EMPTY = new Snapshot(0, List.of());
+    }
+
+    // Membership is an identity set, so binding is O(1). The snapshot is rebuilt lazily on the next read, which means
+    // binding a whole chunk or the startup burst costs one copy instead of one per citizen
+    private static final class WorldMembers {
+        private final Set<CitizenData> members = Collections.newSetFromMap(new IdentityHashMap<>());
+        private long version;
+        private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+        private synchronized void add(@Nonnull CitizenData citizen) {
+            if (members.add(citizen)) {
+                version++;
+                snapshot = null;
+            }
+        }
+
+        private synchronized boolean remove(@Nonnull CitizenData citizen) {
+            if (!members.remove(citizen)) {
+                return false;
+            }
+
+            version++;
+            snapshot = null;
+            return true;
+        }
+
+        @Nonnull
+        private Snapshot snapshot() {
+            Snapshot current = snapshot;
+            if (current != null) {
+                return current;
+            }
+
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = new Snapshot(version, List.copyOf(members));
+                }
+                return snapshot;
+            }
+        }
+    }
+
+    public void add(@Nonnull CitizenData citizen) {
+        dormant.remove(citizen.getId(), citizen);
+
+        UUID worldUUID = citizen.getWorldUUID();
+        UUID previousWorld = worldByCitizen.put(citizen.getId(), worldUUID);
+
+        if (previousWorld != null && !previousWorld.equals(worldUUID)) {
+            removeFromWorld(previousWorld, citizen);
+        }
+
+        membersByWorld.computeIfAbsent(worldUUID, k -> new WorldMembers()).add(citizen);
+    }
+
+    public void remove(@Nonnull CitizenData citizen) {
+        dormant.remove(citizen.getId(), citizen);
+
+        // Another instance with the same ID may be bound by now, so only this instance's membership is dropped
+        UUID worldUUID = worldByCitizen.get(citizen.getId());
+        if (worldUUID != null && removeFromWorld(worldUUID, citizen)) {
+            worldByCitizen.remove(citizen.getId(), worldUUID);
+        }
+    }
+
+    // Takes the citizen out of its world's snapshot until add() is called again, which happens when it is rebound
+    public void markDormant(@Nonnull CitizenData citizen) {
+        remove(citizen);
+        dormant.put(citizen.getId(), citizen);
+    }
+
+    public boolean isDormant(@Nonnull CitizenData citizen) {
+        return dormant.get(citizen.getId()) == citizen;
+    }
+
+    public int getDormantCount() {
+        return dormant.size();
+    }
+
+    @Nonnull
+    public Snapshot getSnapshot(@Nonnull UUID worldUUID) {
+        WorldMembers members = membersByWorld.get(worldUUID);
+        return members == null ? Snapshot.EMPTY : members.snapshot();
+    }
+
+    @Nonnull
+    public Set<UUID> getWorlds() {
+        return membersByWorld.keySet();
+    }
+
+    public void clear() {
+        worldByCitizen.clear();
+        dormant.clear();
+        membersByWorld.clear();
+    }
+
+    private boolean removeFromWorld(@Nonnull UUID worldUUID, @Nonnull CitizenData citizen) {
+        WorldMembers members = membersByWorld.get(worldUUID);
+        return members != null && members.remove(citizen);
+    }
+}
@@ -1,6 +1,7 @@
 package com.electro.hycitizens.managers;
 
 import com.electro.hycitizens.HyCitizensPlugin;
+import com.electro.hycitizens.components.CitizenComponent;
 import com.electro.hycitizens.events.CitizenInteractEvent;
 import com.electro.hycitizens.events.CitizenInteractListener;
 import com.electro.hycitizens.models.*;
@@ -30,6 +31,7 @@ import com.hypixel.hytale.server.core.entity.entities.Player;
 import com.hypixel.hytale.server.core.entity.entities.ProjectileComponent;
 import com.hypixel.hytale.server.core.entity.nameplate.Nameplate;
 import com.hypixel.hytale.server.core.inventory.ItemStack;
+import com.hypixel.hytale.server.core.modules.entity.component.Interactable;
 import com.hypixel.hytale.server.core.modules.entity.component.ModelComponent;
 import com.hypixel.hytale.server.core.modules.entity.component.PersistentModel;
 import com.hypixel.hytale.server.core.modules.entity.component.TransformComponent;
@@ -65,12 +67,21 @@ public class CitizensManager {
     private final HyCitizensPlugin plugin;
     private final ConfigManager config;
     private final Map<String, CitizenData> citizens;
+    private final Map<UUID, CitizenData> citizensBySpawnedUUID = new ConcurrentHashMap<>();
+    private final CitizenSpatialIndex spatialIndex = new CitizenSpatialIndex();
     private final List<CitizenInteractListener> interactListeners = new ArrayList<>();
     private ScheduledFuture<?> skinUpdateTask;
-    private ScheduledFuture<?> rotateTask;
-    private ScheduledFuture<?> nametagMoveTask;
-    private ScheduledFuture<?> animationTask;
-    private final Map<UUID, List<CitizenData>> citizensByWorld = new HashMap<>();
+    private final CitizenWorldRegistry worldRegistry = new CitizenWorldRegistry();
+    private final CitizenTickEngine tickEngine = new CitizenTickEngine(worldRegistry);
+    private final LookAtLod lookAtLod = new LookAtLod();
+    private final ObserverStateStore observerStates = new ObserverStateStore();
+    private final Map<UUID, Set<CitizenData>> pendingAnimationReschedules = new ConcurrentHashMap<>();
+    private final Map<UUID, AnimationStopTimers> animationStopTimers = new ConcurrentHashMap<>();
+    private final Map<UUID, PendingSpawnQueue> pendingSpawnQueues = new ConcurrentHashMap<>();
+    private final Map<UUID, RespawnQueue> respawnQueues = new ConcurrentHashMap<>();
+    private final SpawnPipeline spawnPipeline = new SpawnPipeline();
+    private final AiDormancy aiDormancy = new AiDormancy();
+    private volatile Holder<EntityStore> nametagCarrierPrototype;
     private final Set<String> groups = new HashSet<>();
     private final Set<String> registeredNoLoopAnimations = ConcurrentHashMap.newKeySet();
     private final RoleGenerator roleGenerator;
@@ -83,10 +94,7 @@ public class CitizensManager {
 
         loadAllCitizens();
         startSkinUpdateScheduler();
-        startRotateScheduler();
-        startCitizensByWorldScheduler();
-        startAnimationScheduler();
-        startNametagMoveScheduler();
+        registerTickHandlers();
     }
 
     private void startSkinUpdateScheduler() {
@@ -106,206 +114,185 @@ public class CitizensManager {
         }, 30, 30, TimeUnit.MINUTES);
     }
 
-    private void startRotateScheduler() {
-        rotateTask = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-            // Group citizens by world
-            Map<UUID, List<CitizenData>> snapshot;
+    private void registerTickHandlers() {
+        tickEngine.registerWorldTask("spawn-queue", 50, false, this::getPendingSpawnQueue);
+        tickEngine.registerWorldTask("respawn-queue", 100, false, world -> getRespawnQueue(world.getWorldConfig().getUuid()));
 
-            synchronized (citizensByWorld) {
-                snapshot = new HashMap<>(citizensByWorld);
-            }
-
-            // Process each world once
-            for (Map.Entry<UUID, List<CitizenData>> entry : snapshot.entrySet()) {
-                UUID worldUUID = entry.getKey();
-                List<CitizenData> worldCitizens = entry.getValue();
-
-                World world = Universe.get().getWorld(worldUUID);
-                if (world == null)
-                    continue;
-
-                Collection<PlayerRef> players = world.getPlayerRefs();
-                if (players.isEmpty()) {
-                    continue;
-                }
-
-                // Execute all rotation logic for this world
-                world.execute(() -> {
-                    for (CitizenData citizen : worldCitizens) {
-                        if (citizen.getSpawnedUUID() == null || citizen.getNpcRef() == null || !citizen.getNpcRef().isValid())
-                            continue;
-
-                        long chunkIndex = ChunkUtil.indexChunkFromBlock(citizen.getPosition().x, citizen.getPosition().z);
-                        WorldChunk chunk = world.getChunkIfLoaded(chunkIndex);
-                        if (chunk == null)
-                            continue;
-
-                        for (PlayerRef playerRef : players) {
-                            float maxDistance = 25.0f;
-                            float maxDistanceSq = maxDistance * maxDistance;
-
-                            double dx = playerRef.getTransform().getPosition().x - citizen.getPosition().x;
-                            double dz = playerRef.getTransform().getPosition().z - citizen.getPosition().z;
-
-                            double distSq = dx * dx + dz * dz;
-
-                            if (distSq > maxDistanceSq) {
-                                continue;
-                            }
+        tickEngine.register("rotation", 60, true, world -> new CitizenTickEngine.Handler() {
+            private final PlayerSpatialGrid playerGrid = new PlayerSpatialGrid();
+            private final EntityUpdateBatch lookAtBatch = new EntityUpdateBatch();
+            private long tickCount;
 
-                            // Check proximity animations
-                            if (!citizen.getAnimationBehaviors().isEmpty()) {
-                                checkProximityAnimations(citizen, playerRef, distSq);
-                            }
-
-                            if (!citizen.getRotateTowardsPlayer())
-                                continue;
-
-                            // Only look at player if idle
-                            if (!citizen.getMovementBehavior().getType().equals("IDLE"))
-                                continue;
-
-                            rotateCitizenToPlayer(citizen, playerRef);
-                        }
-                    }
-                });
+            @Override
+            public void beginTick(long now) {
+                tickCount++;
+                playerGrid.rebuild(world.getPlayerRefs());
             }
-        }, 0, 60, TimeUnit.MILLISECONDS);
-    }
 
-    private void startNametagMoveScheduler() {
-        nametagMoveTask = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-            // Group citizens by world
-            Map<UUID, List<CitizenData>> snapshot;
-
-            synchronized (citizensByWorld) {
-                snapshot = new HashMap<>(citizensByWorld);
+            @Override
+            public void tickCitizen(@Nonnull CitizenData citizen, long now) {
+                tickCitizenRotation(citizen, playerGrid, lookAtBatch, tickCount);
             }
 
-            // Process each world once
-            for (Map.Entry<UUID, List<CitizenData>> entry : snapshot.entrySet()) {
-                UUID worldUUID = entry.getKey();
-                List<CitizenData> worldCitizens = entry.getValue();
+            @Override
+            public void endTick(long now) {
+                lookAtBatch.flush();
+                playerGrid.clear();
+            }
+        });
 
-                World world = Universe.get().getWorld(worldUUID);
-                if (world == null)
-                    continue;
+        tickEngine.register("ai-dormancy", AiDormancy.CHECK_INTERVAL_MS, false, world -> new CitizenTickEngine.Handler() {
+            private final PlayerSpatialGrid playerGrid = new PlayerSpatialGrid();
 
-                Collection<PlayerRef> players = world.getPlayerRefs();
-                if (players.isEmpty()) {
-                    continue;
+            @Override
+            public void beginTick(long now) {
+                if (aiDormancy.isEnabled()) {
+                    playerGrid.rebuild(world.getPlayerRefs());
                 }
+            }
 
-                // Execute all movement logic for this world
-                world.execute(() -> {
-                    for (CitizenData citizen : worldCitizens) {
-                        if (citizen.getSpawnedUUID() == null || citizen.getNpcRef() == null || !citizen.getNpcRef().isValid()) {
-                            continue;
-                        }
+            @Override
+            public void tickCitizen(@Nonnull CitizenData citizen, long now) {
+                tickCitizenDormancy(citizen, playerGrid, now);
+            }
 
-                        if (citizen.getMovementBehavior().getType().equals("IDLE")) {
-                            continue;
-                        }
+            @Override
+            public void endTick(long now) {
+                playerGrid.clear();
+            }
+        });
 
-                        long chunkIndex = ChunkUtil.indexChunkFromBlock(citizen.getPosition().x, citizen.getPosition().z);
-                        WorldChunk chunk = world.getChunkIfLoaded(chunkIndex);
-                        if (chunk == null)
-                            continue;
+        tickEngine.registerWorldTask("animation-stop", 50, false, world ->
+                getAnimationStopTimers(world.getWorldConfig().getUuid()));
 
-                        TransformComponent npcTransformComponent = citizen.getNpcRef().getStore().getComponent(citizen.getNpcRef(), TransformComponent.getComponentType());
-                        if (npcTransformComponent == null) {
-                            continue;
-                        }
+        tickEngine.registerWorldTask("animation", 100, false, world ->
+                new CitizenAnimationScheduler(this, world, getPendingAnimationReschedules(world.getWorldConfig().getUuid())));
+    }
 
-                        Vector3d npcPosition = npcTransformComponent.getPosition();
+    private void tickCitizenRotation(@Nonnull CitizenData citizen, @Nonnull PlayerSpatialGrid playerGrid,
+                                     @Nonnull EntityUpdateBatch lookAtBatch, long tickCount) {
+        AnimationBehavior[] proximityBehaviors = citizen.getProximityBehaviors();
+        boolean canRotate = citizen.getRotateTowardsPlayer() && citizen.getMovementBehavior().isIdle();
 
-                        // Todo: It would be better to store the nametags as a ref
+        // Proximity animations may reach further than the look-at range
+        float range = Math.max(canRotate ? citizen.getLookAtRange() : 0, citizen.getMaxProximityRange());
 
-                        int totalLines = citizen.getHologramLineUuids().size();
-                        if (totalLines == 0) {
-                            return;
-                        }
+        if (range <= 0)
+            return;
 
-                        // Calculate the same offsets as in spawn
-                        double scale = Math.max(0.01, citizen.getScale() + citizen.getNametagOffset());
-                        double baseOffset = 1.65;
-                        double extraPerScale = 0.40;
-                        double yOffset = baseOffset * scale + (scale - 1.0) * extraPerScale;
-                        double lineSpacing = 0.25;
-
-                        // Update each hologram line
-                        for (int i = 0; i < totalLines; i++) {
-                            UUID uuid = citizen.getHologramLineUuids().get(i);
-                            if (uuid == null) {
-                                continue;
-                            }
+        float nearRange = Math.min(citizen.getLookAtNearRange(), citizen.getLookAtRange());
+        boolean midBandDue = LookAtLod.isMidBandDue(tickCount, citizen.getId(), citizen.getLookAtMidTickInterval());
+        Vector3d position = citizen.getPosition();
 
-                            Ref<EntityStore> entityRef = world.getEntityRef(uuid);
-                            if (entityRef == null || !entityRef.isValid()) {
-                                continue;
-                            }
+        playerGrid.forEachWithin(position.x, position.z, range, (playerRef, distSq) -> {
+            // Check proximity animations
+            if (proximityBehaviors.length > 0) {
+                checkProximityAnimations(citizen, proximityBehaviors, playerRef, distSq);
+            }
 
-                            TransformComponent nametagTransformComponent = entityRef.getStore().getComponent(entityRef, TransformComponent.getComponentType());
-                            if (nametagTransformComponent == null) {
-                                continue;
-                            }
+            // Only look at player if idle
+            if (!canRotate)
+                return;
 
-                            // Position this line
-                            Vector3d linePos = new Vector3d(
-                                    npcPosition.x,
-                                    npcPosition.y + yOffset + ((totalLines - 1 - i) * lineSpacing),
-                                    npcPosition.z
-                            );
+            LookAtLod.Band band = LookAtLod.bandFor(distSq, nearRange, citizen.getLookAtRange());
+            if (band == LookAtLod.Band.FAR || (band == LookAtLod.Band.MID && !midBandDue)) {
+                lookAtLod.recordSuppressed(band);
+                return;
+            }
 
-                            nametagTransformComponent.setPosition(linePos);
-                        }
-                    }
-                });
+            EntityUpdate lookAtUpdate = buildLookAtUpdate(citizen, playerRef, LookAtLod.thresholdFor(band, citizen.getLookAtMidThreshold()));
+            if (lookAtUpdate != null) {
+                lookAtBatch.add(playerRef, lookAtUpdate);
+            } else {
+                lookAtLod.recordSuppressed(band);
             }
-        }, 0, 15, TimeUnit.MILLISECONDS);
+        });
     }
 
-    private void startCitizensByWorldScheduler() {
-        HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-            Map<UUID, List<CitizenData>> tmp = new HashMap<>();
+    private void tickCitizenDormancy(@Nonnull CitizenData citizen, @Nonnull PlayerSpatialGrid playerGrid, long now) {
+        if (!aiDormancy.isEnabled() || !AiDormancy.isEligible(citizen)) {
+            if (citizen.isAiDormant()) {
+                applyAiDormancy(citizen, false);
+            }
+            return;
+        }
 
-            for (CitizenData citizen : citizens.values()) {
-                if (citizen.getSpawnedUUID() == null || citizen.getNpcRef() == null || !citizen.getNpcRef().isValid())
-                    continue;
+        // Waking uses the smaller radius and sleeping the larger one, so players near the edge do not cause flapping
+        boolean dormant = citizen.isAiDormant();
+        float radius = dormant ? aiDormancy.getWakeRadius() : aiDormancy.getSleepRadius();
+        Vector3d position = citizen.getPosition();
 
-                UUID worldUUID = citizen.getWorldUUID();
-                tmp.computeIfAbsent(worldUUID, k -> new ArrayList<>()).add(citizen);
+        if (playerGrid.anyWithin(position.x, position.z, radius)) {
+            citizen.setLastAiObservedAt(now);
+            if (dormant) {
+                applyAiDormancy(citizen, false);
             }
+            return;
+        }
 
-            synchronized (citizensByWorld) {
-                citizensByWorld.clear();
-                citizensByWorld.putAll(tmp);
-            }
-        }, 0, 1000, TimeUnit.MILLISECONDS);
+        if (!dormant && now - citizen.getLastAiObservedAt() >= aiDormancy.getSleepDelayMs()) {
+            applyAiDormancy(citizen, true);
+        }
     }
 
-    public void shutdown() {
-        if (skinUpdateTask != null && !skinUpdateTask.isCancelled()) {
-            skinUpdateTask.cancel(false);
+    // Swaps the NPC between its generated role and the static dormant role, the same way a delayed role retry applies it
+    private void applyAiDormancy(@Nonnull CitizenData citizen, boolean dormant) {
+        Ref<EntityStore> npcRef = citizen.getNpcRef();
+        if (npcRef == null || !npcRef.isValid()) {
+            return;
+        }
+
+        NPCEntity npcEntity = npcRef.getStore().getComponent(npcRef, NPCEntity.getComponentType());
+        if (npcEntity == null) {
+            return;
+        }
+
+        String roleName = dormant ? roleGenerator.getDormantRoleName(citizen) : roleGenerator.getRoleName(citizen);
+        int roleIndex = NPCPlugin.get().getIndex(roleName);
+        if (roleIndex == Integer.MIN_VALUE && !dormant) {
+            roleName = roleGenerator.getFallbackRoleName(citizen);
+            roleIndex = NPCPlugin.get().getIndex(roleName);
+        }
+
+        if (roleIndex == Integer.MIN_VALUE) {
+            return;
         }
 
-        if (rotateTask != null && !rotateTask.isCancelled()) {
-            rotateTask.cancel(false);
+        try {
+            npcEntity.setRoleIndex(roleIndex);
+            npcEntity.setRoleName(roleName);
+        } catch (Exception e) {
+            getLogger().atWarning().log("Failed to apply role '" + roleName + "' to citizen '" + citizen.getName() + "': " + e.getMessage());
+            return;
         }
 
-        if (animationTask != null && !animationTask.isCancelled()) {
-            animationTask.cancel(false);
+        citizen.setAiDormant(dormant);
+        if (dormant) {
+            aiDormancy.recordSlept();
+        } else {
+            aiDormancy.recordWoken();
         }
+    }
 
-        if (nametagMoveTask != null && !nametagMoveTask.isCancelled()) {
-            nametagMoveTask.cancel(false);
+    public void shutdown() {
+        if (skinUpdateTask != null && !skinUpdateTask.isCancelled()) {
+            skinUpdateTask.cancel(false);
         }
+
+        tickEngine.shutdown();
     }
 
     private void loadAllCitizens() {
         citizens.clear();
+        citizensBySpawnedUUID.clear();
+        spatialIndex.clear();
+        worldRegistry.clear();
+        observerStates.clear();
         groups.clear();
 
+        spawnPipeline.configure(config);
+        aiDormancy.configure(config);
+
         // Load groups
         List<String> groupList = config.getStringList("groups");
         if (groupList != null) {
@@ -319,10 +306,25 @@ public class CitizensManager {
             CitizenData citizen = loadCitizen(citizenId);
             if (citizen != null) {
                 citizens.put(citizenId, citizen);
+                spatialIndex.update(citizen);
+
+                // Persisted NPCs keep their UUID across restarts
+                if (citizen.getSpawnedUUID() != null) {
+                    citizensBySpawnedUUID.put(citizen.getSpawnedUUID(), citizen);
+                }
 
                 if (!citizen.getGroup().isEmpty()) {
                     groups.add(citizen.getGroup());
                 }
+
+                // Citizens that died before a restart keep waiting for their respawn instead of loading with their chunk
+                if (citizen.getRespawnAt() > 0) {
+                    if (citizen.isRespawnOnDeath()) {
+                        scheduleRespawn(citizen);
+                    } else {
+                        citizen.setRespawnAt(0);
+                    }
+                }
             }
         }
 
@@ -411,7 +413,6 @@ public class CitizensManager {
 
         CitizenData citizenData = new CitizenData(citizenId, name, modelId, worldUUID, position, rotation, scale, npcUUID, hologramUuids,
                 permission, permMessage, actions, isPlayerModel, useLiveSkin, skinUsername, cachedSkin, lastSkinUpdate, rotateTowardsPlayer);
-        citizenData.setCreatedAt(0); // Mark as loaded from config, not newly created
 
         // Load item data
         citizenData.setNpcHelmet(config.getString(basePath + ".npc-helmet", null));
@@ -424,7 +425,13 @@ public class CitizensManager {
         // Misc
         citizenData.setHideNametag(config.getBoolean(basePath + ".hide-nametag", false));
         citizenData.setHideNpc(config.getBoolean(basePath + ".hide-npc", false));
+        // Player models have no static form, so a flag saved before that was enforced is ignored
+        citizenData.setStaticMode(config.getBoolean(basePath + ".static-mode", false) && !isPlayerModel);
         citizenData.setNametagOffset(config.getFloat(basePath + ".nametag-offset", 0));
+        citizenData.setLookAtRange(config.getFloat(basePath + ".look-at-range", 25.0f));
+        citizenData.setLookAtNearRange(config.getFloat(basePath + ".look-at-near-range", 10.0f));
+        citizenData.setLookAtMidThreshold(config.getFloat(basePath + ".look-at-mid-threshold", LookAtLod.DEFAULT_MID_THRESHOLD));
+        citizenData.setLookAtMidTickInterval(config.getInt(basePath + ".look-at-mid-tick-interval", LookAtLod.DEFAULT_MID_TICK_INTERVAL));
         citizenData.setFKeyInteractionEnabled(config.getBoolean(basePath + ".f-key-interaction", false));
 
         // Load animation behaviors
@@ -470,6 +477,7 @@ public class CitizensManager {
         // Load respawn settings
         citizenData.setRespawnOnDeath(config.getBoolean(basePath + ".respawn-on-death", true));
         citizenData.setRespawnDelaySeconds(config.getFloat(basePath + ".respawn-delay", 5.0f));
+        citizenData.setRespawnAt(config.getLong(basePath + ".respawn-at", 0));
 
         // Load group (backwards compatible - defaults to empty string)
         citizenData.setGroup(config.getString(basePath + ".group", ""));
@@ -572,6 +580,9 @@ public class CitizensManager {
     }
 
     public void saveCitizen(@Nonnull CitizenData citizen) {
+        // Every settings change is saved, so this is where edited animation behaviors get picked up
+        markAnimationsDirty(citizen);
+
         config.beginBatch();
 
         try {
@@ -621,7 +632,12 @@ public class CitizensManager {
             // Misc
             config.set(basePath + ".hide-nametag", citizen.isHideNametag());
             config.set(basePath + ".hide-npc", citizen.isHideNpc());
+            config.set(basePath + ".static-mode", citizen.isStaticMode());
             config.set(basePath + ".nametag-offset", citizen.getNametagOffset());
+            config.set(basePath + ".look-at-range", citizen.getLookAtRange());
+            config.set(basePath + ".look-at-near-range", citizen.getLookAtNearRange());
+            config.set(basePath + ".look-at-mid-threshold", citizen.getLookAtMidThreshold());
+            config.set(basePath + ".look-at-mid-tick-interval", citizen.getLookAtMidTickInterval());
 
             // Save animation behaviors
             List<AnimationBehavior> animBehaviors = citizen.getAnimationBehaviors();
@@ -664,6 +680,7 @@ public class CitizensManager {
             // Save respawn settings
             config.set(basePath + ".respawn-on-death", citizen.isRespawnOnDeath());
             config.set(basePath + ".respawn-delay", citizen.getRespawnDelaySeconds());
+            config.set(basePath + ".respawn-at", citizen.getRespawnAt() > 0 ? citizen.getRespawnAt() : null);
 
             // Save group
             config.set(basePath + ".group", citizen.getGroup());
@@ -771,9 +788,8 @@ public class CitizensManager {
     }
 
     public void addCitizen(@Nonnull CitizenData citizen, boolean save) {
-        citizen.setCreatedAt(System.currentTimeMillis());
-
         citizens.put(citizen.getId(), citizen);
+        spatialIndex.update(citizen);
 
         if (save)
             saveCitizen(citizen);
@@ -783,6 +799,7 @@ public class CitizensManager {
 
     public void updateCitizen(@Nonnull CitizenData citizen, boolean save) {
         citizens.put(citizen.getId(), citizen);
+        spatialIndex.update(citizen);
 
         if (save)
             saveCitizen(citizen);
@@ -792,6 +809,7 @@ public class CitizensManager {
 
     public void updateCitizenNPC(@Nonnull CitizenData citizen, boolean save) {
         citizens.put(citizen.getId(), citizen);
+        spatialIndex.update(citizen);
 
         if (save)
             saveCitizen(citizen);
@@ -801,6 +819,7 @@ public class CitizensManager {
 
     public void updateCitizenHologram(@Nonnull CitizenData citizen, boolean save) {
         citizens.put(citizen.getId(), citizen);
+        spatialIndex.update(citizen);
 
         updateSpawnedCitizenHologram(citizen, save);
 
@@ -894,6 +913,14 @@ public class CitizensManager {
 
     public void removeCitizen(@Nonnull String citizenId) {
         CitizenData citizen = citizens.remove(citizenId);
+        if (citizen != null) {
+            spatialIndex.remove(citizen);
+            worldRegistry.remove(citizen);
+            observerStates.release(citizen);
+            if (citizen.getSpawnedUUID() != null) {
+                citizensBySpawnedUUID.remove(citizen.getSpawnedUUID(), citizen);
+            }
+        }
 
         config.set("citizens." + citizenId, null);
 
@@ -916,51 +943,30 @@ public class CitizensManager {
 //            return;
 //        }
 
-        long start = System.currentTimeMillis();
-        final ScheduledFuture<?>[] futureRef = new ScheduledFuture<?>[1];
-        boolean[] spawned = { false };
-        boolean[] queued = { false };
-
-        futureRef[0] = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-            if (spawned[0]) {
-                futureRef[0].cancel(false);
+        // The hologram is spawned as part of this, so drop any separate pending hologram spawn
+        PendingSpawnQueue spawnQueue = getPendingSpawnQueue(world);
+        spawnQueue.cancel("hologram:" + citizen.getId());
+        // An explicit spawn supersedes whatever state the citizen was in. The replaced queue entry is dropped
+        cancelPendingRespawn(citizen);
+        citizen.setLifecycle(CitizenLifecycle.PENDING);
+        spawnQueue.enqueue("spawn:" + citizen.getId(), citizen, CitizenSpatialIndex.chunkIndexOf(citizen), () -> {
+            if (!citizen.compareAndSetLifecycle(CitizenLifecycle.PENDING, CitizenLifecycle.SPAWNING)) {
                 return;
             }
 
-            // Timeout
-            long elapsedMs = System.currentTimeMillis() - start;
-            if (elapsedMs >= 15_000) {
-                futureRef[0].cancel(false);
-                return;
-            }
+            despawnCitizenNPC(citizen);
+            despawnCitizenHologram(citizen);
 
-            if (queued[0]) {
-                return;
+            if (!citizen.isHideNpc()) {
+                spawnCitizenNPC(citizen, save);
             }
-            queued[0] = true;
-
-            world.execute(() -> {
-                long chunkIndex = ChunkUtil.indexChunkFromBlock(citizen.getPosition().x, citizen.getPosition().z);
-                WorldChunk chunk = world.getChunkIfLoaded(chunkIndex);
-
-                if (chunk == null) {
-                    queued[0] = false;
-                    return;
-                }
 
-                spawned[0] = true;
-                futureRef[0].cancel(false);
-
-                despawnCitizenNPC(citizen);
-                despawnCitizenHologram(citizen);
-
-                if (!citizen.isHideNpc()) {
-                    spawnCitizenNPC(citizen, save);
-                }
-                spawnCitizenHologram(citizen, save);
-            });
+            if (!citizen.isHideNametag()) {
+                spawnHologramLines(citizen, world, save);
+            }
 
-        }, 0, 250, TimeUnit.MILLISECONDS);
+            citizen.compareAndSetLifecycle(CitizenLifecycle.SPAWNING, CitizenLifecycle.SPAWNED);
+        }, () -> citizen.compareAndSetLifecycle(CitizenLifecycle.PENDING, CitizenLifecycle.UNLOADED));
     }
 
     public void spawnCitizenNPC(CitizenData citizen, boolean save) {
@@ -990,6 +996,11 @@ public class CitizensManager {
             return;
         }
 
+        if (citizen.isStaticMode()) {
+            spawnStaticCitizenEntity(citizen, world, citizenModel, save);
+            return;
+        }
+
         String roleName = resolveRoleName(citizen);
 
         Pair<Ref<EntityStore>, NPCEntity> npc = NPCPlugin.get().spawnEntity(
@@ -1027,17 +1038,52 @@ public class CitizensManager {
 
         UUIDComponent uuidComponent = store.getComponent(ref, UUIDComponent.getComponentType());
 
-        citizen.setNpcRef(ref);
+        bindCitizenEntity(citizen, ref, uuidComponent != null ? uuidComponent.getUuid() : null);
 
-        if (uuidComponent != null) {
-            citizen.setSpawnedUUID(uuidComponent.getUuid());
-
-            if (save)
-                saveCitizen(citizen);
+        if (uuidComponent != null && save) {
+            saveCitizen(citizen);
         }
 
         updateCitizenNPCItems(citizen);
-        triggerAnimations(citizen, "DEFAULT");
+        triggerAnimations(citizen, AnimationTrigger.DEFAULT);
+    }
+
+    // Static decorations are a bare model entity. There is no role, inventory or NPC ticking, so they never move or fight,
+    // and interaction is handled by the plugin's own listener instead of a role action
+    private void spawnStaticCitizenEntity(@Nonnull CitizenData citizen, @Nonnull World world, @Nonnull Model citizenModel, boolean save) {
+        Store<EntityStore> store = world.getEntityStore().getStore();
+        Holder<EntityStore> holder = EntityStore.REGISTRY.newHolder();
+
+        holder.addComponent(TransformComponent.getComponentType(), new TransformComponent(new Vector3d(citizen.getPosition()), new Vector3f(citizen.getRotation())));
+        holder.addComponent(ModelComponent.getComponentType(), new ModelComponent(citizenModel));
+        holder.addComponent(PersistentModel.getComponentType(), new PersistentModel(new Model.ModelReference(
+                citizenModel.getModelAssetId(),
+                citizenModel.getScale(),
+                citizenModel.getRandomAttachmentIds(),
+                citizenModel.getAnimationSetMap() == null
+        )));
+        holder.addComponent(NetworkId.getComponentType(), new NetworkId(store.getExternalData().takeNextNetworkId()));
+        holder.addComponent(CitizenComponent.getComponentType(), new CitizenComponent(citizen.getId()));
+        holder.ensureComponent(UUIDComponent.getComponentType());
+
+        if (citizen.getFKeyInteractionEnabled()) {
+            holder.ensureComponent(Interactable.getComponentType());
+        }
+
+        UUIDComponent uuidComponent = holder.getComponent(UUIDComponent.getComponentType());
+        Ref<EntityStore> ref = store.addEntity(holder, AddReason.SPAWN);
+        if (ref == null) {
+            getLogger().atWarning().log("Failed to spawn static citizen: " + citizen.getName() + ".");
+            return;
+        }
+
+        bindCitizenEntity(citizen, ref, uuidComponent != null ? uuidComponent.getUuid() : null);
+
+        if (uuidComponent != null && save) {
+            saveCitizen(citizen);
+        }
+
+        triggerAnimations(citizen, AnimationTrigger.DEFAULT);
     }
 
     public void spawnPlayerModelNPC(CitizenData citizen, World world, boolean save) {
@@ -1109,17 +1155,14 @@ public class CitizensManager {
                 UUIDComponent.getComponentType()
         );
 
-        citizen.setNpcRef(npc.first());
-
-        if (uuidComponent != null) {
-            citizen.setSpawnedUUID(uuidComponent.getUuid());
+        bindCitizenEntity(citizen, npc.first(), uuidComponent != null ? uuidComponent.getUuid() : null);
 
-            if (save)
-                saveCitizen(citizen);
+        if (uuidComponent != null && save) {
+            saveCitizen(citizen);
         }
 
         updateCitizenNPCItems(citizen);
-        triggerAnimations(citizen, "DEFAULT");
+        triggerAnimations(citizen, AnimationTrigger.DEFAULT);
     }
 
     public PlayerSkin determineSkin(CitizenData citizen) {
@@ -1242,9 +1285,7 @@ public class CitizensManager {
     }
 
     public void spawnCitizenHologram(CitizenData citizen, boolean save) {
-        if (!citizen.getHologramLineUuids().isEmpty()) {
-            despawnCitizenHologram(citizen);
-        }
+        despawnCitizenHologram(citizen);
 
         if (citizen.isHideNametag()) {
             return;
@@ -1256,121 +1297,178 @@ public class CitizensManager {
             return;
         }
 
-        long start = System.currentTimeMillis();
-        ScheduledFuture<?>[] futureRef = new ScheduledFuture[1];
-        boolean[] spawned = new boolean[]{false};
-        boolean[] queued = new boolean[]{false};
+        getPendingSpawnQueue(world).enqueue("hologram:" + citizen.getId(), citizen,
+                CitizenSpatialIndex.chunkIndexOf(citizen), () -> spawnHologramLines(citizen, world, save), null);
+    }
 
-        futureRef[0] = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-            if (spawned[0]) {
-                futureRef[0].cancel(false);
-                return;
-            }
+    // Must run on the world thread with the citizen's chunk loaded
+    private void spawnHologramLines(@Nonnull CitizenData citizen, @Nonnull World world, boolean save) {
+        List<String> lines = citizen.getNametagLines();
+        if (lines.isEmpty()) {
+            return;
+        }
 
-            long elapsedMs = System.currentTimeMillis() - start;
-            if (elapsedMs >= 15000L) {
-                futureRef[0].cancel(false);
-                return;
-            }
+        if (usesNpcNameplate(citizen, lines)) {
+            applyNpcNameplate(citizen, lines.get(0));
+        } else {
+            removeNpcNameplate(citizen);
+            spawnNametagCarrier(citizen, world, String.join("\n", lines));
+        }
 
-            if (!queued[0]) {
-                queued[0] = true;
-                world.execute(() -> {
-                    long chunkIndex = ChunkUtil.indexChunkFromBlock(citizen.getPosition().x, citizen.getPosition().z);
-                    WorldChunk chunk = world.getChunkIfLoaded(chunkIndex);
-                    if (chunk == null) {
-                        queued[0] = false;
-                        return;
-                    }
+        if (save) {
+            saveCitizen(citizen);
+        }
+    }
 
-                    spawned[0] = true;
-                    futureRef[0].cancel(false);
+    // A single line sits on the NPC's own nameplate. Multiple lines, a custom nametag offset or a hidden NPC need a
+    // separate carrier entity that can be positioned freely
+    private static boolean usesNpcNameplate(@Nonnull CitizenData citizen, @Nonnull List<String> lines) {
+        Ref<EntityStore> npcRef = citizen.getNpcRef();
+        return lines.size() == 1 && !citizen.isHideNpc() && citizen.getNametagOffset() == 0
+                && npcRef != null && npcRef.isValid();
+    }
 
-                    // Actual spawning logic
-                    String name = citizen.getName();
-                    if (name == null || name.isEmpty()) {
-                        return;
-                    }
+    private void applyNpcNameplate(@Nonnull CitizenData citizen, @Nonnull String text) {
+        Ref<EntityStore> npcRef = citizen.getNpcRef();
+        if (npcRef == null || !npcRef.isValid()) {
+            return;
+        }
 
-                    name = name.replace("\\n", "\n");
+        Store<EntityStore> store = npcRef.getStore();
+        Nameplate nameplate = store.getComponent(npcRef, Nameplate.getComponentType());
+        if (nameplate != null) {
+            nameplate.setText(text);
+        } else {
+            store.putComponent(npcRef, Nameplate.getComponentType(), new Nameplate(text));
+        }
+    }
 
-                    String[] lines = name.split("\\r?\\n");
+    private void removeNpcNameplate(@Nonnull CitizenData citizen) {
+        Ref<EntityStore> npcRef = citizen.getNpcRef();
+        if (npcRef == null || !npcRef.isValid()) {
+            return;
+        }
 
-                    double scale = Math.max(0.01, citizen.getScale() + citizen.getNametagOffset());
+        Store<EntityStore> store = npcRef.getStore();
+        if (store.getComponent(npcRef, Nameplate.getComponentType()) != null) {
+            store.removeComponent(npcRef, Nameplate.getComponentType());
+        }
+    }
 
-                    double baseOffset = 1.65;
-                    double extraPerScale = 0.40;
+    // One entity showing every line of the name, placed where the bottom line used to be
+    private void spawnNametagCarrier(@Nonnull CitizenData citizen, @Nonnull World world, @Nonnull String text) {
+        citizen.refreshNametagLayout(1);
 
-                    double yOffset = baseOffset * scale + (scale - 1.0) * extraPerScale;
+        Vector3d carrierPos = new Vector3d(
+                citizen.getPosition().x,
+                citizen.getPosition().y + citizen.getNametagYOffset(),
+                citizen.getPosition().z
+        );
 
-                    Vector3d baseHologramPos = new Vector3d(
-                            citizen.getPosition().x,
-                            citizen.getPosition().y + yOffset,
-                            citizen.getPosition().z
-                    );
+        Holder<EntityStore> prototype = getNametagCarrierPrototype();
+        if (prototype == null) {
+            return;
+        }
 
-                    Vector3f hologramRot = new Vector3f(citizen.getRotation());
+        Holder<EntityStore> holder = prototype.clone();
 
-                    // Controls spacing between each nameplate line
-                    double lineSpacing = 0.25;
+        holder.putComponent(TransformComponent.getComponentType(), new TransformComponent(carrierPos, new Vector3f(citizen.getRotation())));
+        holder.ensureComponent(UUIDComponent.getComponentType());
 
-                    for (int i = 0; i < lines.length; ++i) {
-                        String lineText = lines[i].trim();
-                        if (lineText.isEmpty()) {
-                            continue;
-                        }
+        holder.addComponent(
+                NetworkId.getComponentType(),
+                new NetworkId(world.getEntityStore().getStore().getExternalData().takeNextNetworkId())
+        );
 
-                        Vector3d linePos = new Vector3d(
-                                baseHologramPos.x,
-                                baseHologramPos.y + ((lines.length - 1 - i) * lineSpacing),
-                                baseHologramPos.z
-                        );
+        UUIDComponent carrierUUIDComponent = holder.getComponent(UUIDComponent.getComponentType());
 
-                        Holder<EntityStore> holder = EntityStore.REGISTRY.newHolder();
+        holder.addComponent(Nameplate.getComponentType(), new Nameplate(text));
+        Ref<EntityStore> carrierRef = world.getEntityStore().getStore().addEntity(holder, AddReason.SPAWN);
 
-                        ProjectileComponent projectileComponent = new ProjectileComponent("Projectile");
-                        holder.putComponent(ProjectileComponent.getComponentType(), projectileComponent);
+        if (carrierUUIDComponent != null) {
+            citizen.getHologramLineUuids().add(carrierUUIDComponent.getUuid());
+            citizen.getHologramLineRefs().add(carrierRef);
+        }
+    }
 
-                        holder.putComponent(TransformComponent.getComponentType(), new TransformComponent(linePos, hologramRot));
-                        holder.ensureComponent(UUIDComponent.getComponentType());
+    // Carrier entities share everything but their transform, identity and text, so the initialized projectile is built
+    // once and cloned for each carrier
+    @Nullable
+    private Holder<EntityStore> getNametagCarrierPrototype() {
+        Holder<EntityStore> prototype = nametagCarrierPrototype;
+        if (prototype != null) {
+            return prototype;
+        }
 
-                        if (projectileComponent.getProjectile() == null) {
-                            projectileComponent.initialize();
-                            if (projectileComponent.getProjectile() == null) {
-                                continue;
-                            }
-                        }
+        prototype = EntityStore.REGISTRY.newHolder();
 
-                        holder.addComponent(
-                                NetworkId.getComponentType(),
-                                new NetworkId(world.getEntityStore().getStore().getExternalData().takeNextNetworkId())
-                        );
+        ProjectileComponent projectileComponent = new ProjectileComponent("Projectile");
+        prototype.putComponent(ProjectileComponent.getComponentType(), projectileComponent);
 
-                        UUIDComponent hologramUUIDComponent = holder.getComponent(UUIDComponent.getComponentType());
-                        if (hologramUUIDComponent != null) {
-                            citizen.getHologramLineUuids().add(hologramUUIDComponent.getUuid());
-                        }
+        if (projectileComponent.getProjectile() == null) {
+            projectileComponent.initialize();
+            if (projectileComponent.getProjectile() == null) {
+                return null;
+            }
+        }
 
-                        holder.addComponent(Nameplate.getComponentType(), new Nameplate(lineText));
-                        world.getEntityStore().getStore().addEntity(holder, AddReason.SPAWN);
-                    }
+        nametagCarrierPrototype = prototype;
+        return prototype;
+    }
 
-                    if (save) {
-                        saveCitizen(citizen);
-                    }
-                });
-            }
-        }, 0L, 250L, TimeUnit.MILLISECONDS);
+    // Runs on the world thread with the chunk loaded. True if the nametag is missing or still in the old one entity
+    // per line layout, which respawning migrates
+    public boolean needsHologramRespawn(@Nonnull CitizenData citizen, @Nonnull World world) {
+        if (citizen.isHideNametag()) {
+            return false;
+        }
+
+        List<String> lines = citizen.getNametagLines();
+        if (lines.isEmpty()) {
+            return false;
+        }
+
+        List<UUID> hologramUuids = citizen.getHologramLineUuids();
+
+        if (usesNpcNameplate(citizen, lines)) {
+            Ref<EntityStore> npcRef = citizen.getNpcRef();
+            return !hologramUuids.isEmpty() || npcRef == null
+                    || npcRef.getStore().getComponent(npcRef, Nameplate.getComponentType()) == null;
+        }
+
+        if (hologramUuids.size() != 1) {
+            return true;
+        }
+
+        UUID carrierUUID = hologramUuids.get(0);
+        return carrierUUID == null || world.getEntityRef(carrierUUID) == null;
     }
 
     public void despawnCitizen(CitizenData citizen) {
+        cancelPendingRespawn(citizen);
+        citizen.setLifecycle(CitizenLifecycle.DESPAWNING);
+
+        World world = Universe.get().getWorld(citizen.getWorldUUID());
+        if (world != null) {
+            // Drop spawn work still queued for this citizen
+            PendingSpawnQueue spawnQueue = getPendingSpawnQueue(world);
+            spawnQueue.cancel("spawn:" + citizen.getId());
+            spawnQueue.cancel("preload:" + citizen.getId());
+            spawnQueue.cancel("hologram:" + citizen.getId());
+            spawnQueue.cancel("hologram-check:" + citizen.getId());
+        }
+
         despawnCitizenNPC(citizen);
         despawnCitizenHologram(citizen);
+
+        citizen.compareAndSetLifecycle(CitizenLifecycle.DESPAWNING, CitizenLifecycle.UNLOADED);
     }
 
     public void despawnCitizenNPC(CitizenData citizen) {
-        // Prevent respawn scheduler from re-spawning this NPC
-        citizen.setAwaitingRespawn(false);
+        // Prevent the pending respawn from re-spawning this NPC
+        if (citizen.compareAndSetLifecycle(CitizenLifecycle.DEAD_AWAITING_RESPAWN, CitizenLifecycle.UNLOADED)) {
+            cancelPendingRespawn(citizen);
+        }
 
         World world = Universe.get().getWorld(citizen.getWorldUUID());
         if (world == null) {
@@ -1385,8 +1483,7 @@ public class CitizensManager {
                 world.getEntityStore().getStore().removeEntity(npcRef, RemoveReason.REMOVE);
             });
 
-            citizen.setSpawnedUUID(null);
-            citizen.setNpcRef(null);
+            unbindCitizenEntity(citizen);
         }
 
         if (!despawned) {
@@ -1402,28 +1499,133 @@ public class CitizensManager {
                         world.getEntityStore().getStore().removeEntity(npc, RemoveReason.REMOVE);
                     });
 
-                    citizen.setSpawnedUUID(null);
-                    citizen.setNpcRef(null);
+                    unbindCitizenEntity(citizen);
                 }
             }
         }
     }
 
+    public void bindCitizenEntity(@Nonnull CitizenData citizen, @Nonnull Ref<EntityStore> npcRef, @Nullable UUID spawnedUUID) {
+        UUID previousUUID = citizen.getSpawnedUUID();
+        if (previousUUID != null && !previousUUID.equals(spawnedUUID)) {
+            citizensBySpawnedUUID.remove(previousUUID, citizen);
+        }
+
+        citizen.setNpcRef(npcRef);
+        citizen.setSpawnedUUID(spawnedUUID);
+        // A new entity gets the full sleep delay before dormancy can put it to sleep
+        citizen.setLastAiObservedAt(System.currentTimeMillis());
+
+        if (spawnedUUID != null) {
+            citizensBySpawnedUUID.put(spawnedUUID, citizen);
+        }
+
+        worldRegistry.add(citizen);
+        spatialIndex.clearAway(citizen);
+        markAnimationsDirty(citizen);
+
+        // Entities spawned or found outside the queued paths still count as spawned
+        citizen.compareAndSetLifecycle(CitizenLifecycle.UNLOADED, CitizenLifecycle.SPAWNED);
+
+        // Tag the entity so ECS systems can match citizens directly. This also migrates NPCs persisted before the component existed
+        Store<EntityStore> store = npcRef.getStore();
+        if (npcRef.isValid() && store.getComponent(npcRef, CitizenComponent.getComponentType()) == null) {
+            store.putComponent(npcRef, CitizenComponent.getComponentType(), new CitizenComponent(citizen.getId()));
+        }
+
+        // A freshly spawned NPC does not carry the single line nameplate yet
+        if (npcRef.isValid() && !citizen.isHideNametag() && citizen.getHologramLineUuids().isEmpty()) {
+            List<String> lines = citizen.getNametagLines();
+            if (!lines.isEmpty() && usesNpcNameplate(citizen, lines)) {
+                applyNpcNameplate(citizen, lines.get(0));
+            }
+        }
+
+        // NPCs saved while dormant come back with the dormant role and are woken by the dormancy tick
+        NPCEntity npcEntity = npcRef.isValid() ? store.getComponent(npcRef, NPCEntity.getComponentType()) : null;
+        citizen.setAiDormant(npcEntity != null && AiDormancy.isEligible(citizen)
+                && roleGenerator.getDormantRoleName(citizen).equals(npcEntity.getRoleName()));
+
+        // The entity was just built or persisted from the current settings, so later edits are diffed against them
+        citizen.setAppliedState(AppliedCitizenState.capture(citizen, roleGenerator.getWrittenRoleContent(citizen)));
+    }
+
+    // The chunk's entities are saved with it, so the citizens standing in it keep their spawned UUID and are rebound when
+    // it loads again. Until then they are dormant and skipped by every tick. Runs on the world thread
+    public void onChunkUnloaded(@Nonnull World world, long chunkIndex) {
+        // Citizens are matched by where their entity is, which for wandering and combat NPCs need not be their home chunk
+        for (CitizenData citizen : worldRegistry.getSnapshot(world.getWorldConfig().getUuid()).citizens()) {
+            Ref<EntityStore> npcRef = citizen.getNpcRef();
+            if (npcRef == null || entityChunkIndexOf(citizen, npcRef) != chunkIndex) {
+                continue;
+            }
+
+            UUID spawnedUUID = citizen.getSpawnedUUID();
+            if (spawnedUUID != null) {
+                citizensBySpawnedUUID.remove(spawnedUUID, citizen);
+            }
+
+            worldRegistry.markDormant(citizen);
+            spatialIndex.markAway(citizen, chunkIndex);
+            citizen.setNpcRef(null);
+            citizen.setAiDormant(false);
+            citizen.invalidateHologramLineRefs();
+            citizen.compareAndSetLifecycle(CitizenLifecycle.SPAWNED, CitizenLifecycle.UNLOADED);
+        }
+    }
+
+    // Idle passive and static citizens stay where they were spawned, so only NPCs that can move need their transform read
+    private long entityChunkIndexOf(@Nonnull CitizenData citizen, @Nonnull Ref<EntityStore> npcRef) {
+        if (AiDormancy.isEligible(citizen) && npcRef.isValid()) {
+            TransformComponent transform = npcRef.getStore().getComponent(npcRef, TransformComponent.getComponentType());
+            if (transform != null) {
+                Vector3d position = transform.getPosition();
+                return ChunkUtil.indexChunkFromBlock(position.x, position.z);
+            }
+        }
+
+        return CitizenSpatialIndex.chunkIndexOf(citizen);
+    }
+
+    public void unbindCitizenEntity(@Nonnull CitizenData citizen) {
+        UUID previousUUID = citizen.getSpawnedUUID();
+        if (previousUUID != null) {
+            citizensBySpawnedUUID.remove(previousUUID, citizen);
+        }
+
+        citizen.setSpawnedUUID(null);
+        citizen.setNpcRef(null);
+        citizen.setAppliedState(null);
+        citizen.setAiDormant(false);
+        citizen.invalidateHologramLineRefs();
+
+        worldRegistry.remove(citizen);
+        spatialIndex.clearAway(citizen);
+    }
+
     public void despawnCitizenHologram(CitizenData citizen) {
         World world = Universe.get().getWorld(citizen.getWorldUUID());
         if (world == null) {
             return;
         }
 
-        if (citizen.getHologramLineUuids() == null || citizen.getHologramLineUuids().isEmpty()) {
+        Ref<EntityStore> npcRef = citizen.getNpcRef();
+        boolean hasCarriers = citizen.getHologramLineUuids() != null && !citizen.getHologramLineUuids().isEmpty();
+        if (!hasCarriers && npcRef == null) {
             return;
         }
 
-        List<UUID> hologramUuids = new ArrayList<>(citizen.getHologramLineUuids());
+        List<UUID> hologramUuids = hasCarriers ? new ArrayList<>(citizen.getHologramLineUuids()) : List.of();
 
         citizen.getHologramLineUuids().clear();
+        citizen.invalidateHologramLineRefs();
 
         world.execute(() -> {
+            // Single line names live on the NPC itself
+            if (npcRef != null && npcRef.isValid() && npcRef.getStore().getComponent(npcRef, Nameplate.getComponentType()) != null) {
+                npcRef.getStore().removeComponent(npcRef, Nameplate.getComponentType());
+            }
+
             for (UUID uuid : hologramUuids) {
                 try {
                     Ref<EntityStore> hologram = world.getEntityRef(uuid);
@@ -1438,20 +1640,149 @@ public class CitizensManager {
         });
     }
 
+    // Patches the spawned entities with whatever changed since they were last applied. Changes that need a different kind
+    // of entity, or a citizen that is not fully spawned, still go through a full respawn
     public void updateSpawnedCitizen(CitizenData citizen, boolean save) {
+        AppliedCitizenState applied = citizen.getAppliedState();
+        Ref<EntityStore> npcRef = citizen.getNpcRef();
+        World world = Universe.get().getWorld(citizen.getWorldUUID());
+
+        if (applied == null || world == null || npcRef == null || !npcRef.isValid()
+                || citizen.getLifecycle() != CitizenLifecycle.SPAWNED) {
+            respawnCitizen(citizen, save);
+            return;
+        }
+
+        // Static decorations have no role. For everything else the role file is only rewritten if its content changed,
+        // and saving has already regenerated it
+        String roleContent = null;
+        if (!citizen.isStaticMode()) {
+            if (!save) {
+                roleGenerator.generateRole(citizen);
+            }
+            roleContent = roleGenerator.getWrittenRoleContent(citizen);
+        }
+
+        AppliedCitizenState target = AppliedCitizenState.capture(citizen, roleContent);
+        if (!applied.sameEntityKind(target) || (!citizen.isStaticMode() && roleContent == null)) {
+            respawnCitizen(citizen, save);
+            return;
+        }
+
+        boolean roleChanged = !citizen.isStaticMode() && !roleContent.equals(applied.roleContent());
+
+        world.execute(() -> {
+            if (citizen.getNpcRef() != npcRef || !npcRef.isValid() || citizen.getAppliedState() != applied) {
+                respawnCitizen(citizen, save);
+                return;
+            }
+
+            if (!applied.sameModel(target) && !patchCitizenModel(citizen, npcRef)) {
+                respawnCitizen(citizen, save);
+                return;
+            }
+
+            if (!applied.sameTransform(target)) {
+                patchCitizenTransform(citizen, npcRef);
+            }
+
+            if (!applied.sameItems(target) && !citizen.isStaticMode()) {
+                updateCitizenNPCItems(citizen);
+            }
+
+            if (citizen.isStaticMode() && applied.fKeyInteraction() != target.fKeyInteraction()) {
+                Store<EntityStore> store = npcRef.getStore();
+                if (target.fKeyInteraction()) {
+                    store.ensureComponent(npcRef, Interactable.getComponentType());
+                } else if (store.getComponent(npcRef, Interactable.getComponentType()) != null) {
+                    store.removeComponent(npcRef, Interactable.getComponentType());
+                }
+            }
+
+            // The rewritten role file is only picked up by the asset hot-reload, so the role is swapped on the live NPC
+            // through the same delayed path as a fallback role once the new definition is indexed
+            if (roleChanged) {
+                scheduleRoleRetry(citizen, roleGenerator.getRoleName(citizen));
+            }
+
+            citizen.setAppliedState(target);
+            markAnimationsDirty(citizen);
+
+            // Carriers follow the NPC on their own, so only nametag changes need the hologram touched
+            if (!applied.sameNametag(target)) {
+                updateSpawnedCitizenHologram(citizen, save);
+            }
+        });
+    }
+
+    private void respawnCitizen(@Nonnull CitizenData citizen, boolean save) {
+        citizen.setAppliedState(null);
         despawnCitizen(citizen);
         spawnCitizen(citizen, save);
     }
 
+    // Runs on the world thread. Returns false if the model could not be built, leaving the entity untouched
+    private boolean patchCitizenModel(@Nonnull CitizenData citizen, @Nonnull Ref<EntityStore> npcRef) {
+        float scale = Math.max((float) 0.01, citizen.getScale());
+        Model newModel;
+
+        if (citizen.isPlayerModel()) {
+            // Rebuilt from the skin the entity already wears. Live skins are refetched by the skin update task, not here
+            PlayerSkin skin = citizen.getCachedSkin();
+            newModel = skin != null
+                    ? CosmeticsModule.get().createModel(skin, scale)
+                    : new Model.ModelReference("Player", scale, new HashMap<>()).toModel();
+
+            if (newModel == null) {
+                getLogger().atWarning().log("Failed to create player model for citizen: " + citizen.getName());
+                return false;
+            }
+        } else {
+            newModel = new Model.ModelReference(citizen.getModelId(), scale, new HashMap<>()).toModel();
+            if (newModel == null) {
+                getLogger().atWarning().log("Failed to update citizen model: " + citizen.getName() + ". The model ID is invalid. Try updating the model ID.");
+                return false;
+            }
+        }
+
+        Store<EntityStore> store = npcRef.getStore();
+        store.putComponent(npcRef, ModelComponent.getComponentType(), new ModelComponent(newModel));
+
+        PersistentModel persistentModel = store.getComponent(npcRef, PersistentModel.getComponentType());
+        if (persistentModel != null) {
+            persistentModel.setModelReference(new Model.ModelReference(
+                    newModel.getModelAssetId(),
+                    newModel.getScale(),
+                    newModel.getRandomAttachmentIds(),
+                    newModel.getAnimationSetMap() == null
+            ));
+        }
+
+        return true;
+    }
+
+    // Runs on the world thread
+    private void patchCitizenTransform(@Nonnull CitizenData citizen, @Nonnull Ref<EntityStore> npcRef) {
+        Store<EntityStore> store = npcRef.getStore();
+
+        TransformComponent transform = store.getComponent(npcRef, TransformComponent.getComponentType());
+        if (transform != null) {
+            transform.setPosition(new Vector3d(citizen.getPosition()));
+            transform.setRotation(new Vector3f(citizen.getRotation()));
+        }
+
+        NPCEntity npcEntity = store.getComponent(npcRef, NPCEntity.getComponentType());
+        if (npcEntity != null) {
+            npcEntity.setLeashPoint(citizen.getPosition());
+        }
+    }
+
     public void updateSpawnedCitizenNPC(CitizenData citizen, boolean save) {
         despawnCitizenNPC(citizen);
         spawnCitizenNPC(citizen, save);
     }
 
     public void updateSpawnedCitizenHologram(CitizenData citizen, boolean save) {
-        //despawnCitizenHologram(citizen);
-        //spawnCitizenHologram(citizen, save);
-
         if (citizen.isHideNametag()) {
             despawnCitizenHologram(citizen);
             if (save) {
@@ -1469,8 +1800,8 @@ public class CitizensManager {
             return;
         }
 
-        String name = citizen.getName();
-        if (name == null || name.isEmpty()) {
+        List<String> lines = citizen.getNametagLines();
+        if (lines.isEmpty()) {
             despawnCitizenHologram(citizen);
             if (save) {
                 saveCitizen(citizen);
@@ -1478,36 +1809,6 @@ public class CitizensManager {
             return;
         }
 
-        name = name.replace("\\n", "\n");
-        String[] lines = name.split("\\r?\\n");
-
-        // Filter out empty lines
-        List<String> nonEmptyLines = new ArrayList<>();
-        for (String line : lines) {
-            String trimmed = line.trim();
-            if (!trimmed.isEmpty()) {
-                nonEmptyLines.add(trimmed);
-            }
-        }
-
-        List<UUID> existingUuids = citizen.getHologramLineUuids();
-        int existingCount = existingUuids.size();
-        int newCount = nonEmptyLines.size();
-
-        // Calculate position parameters
-        double scale = Math.max(0.01, citizen.getScale() + citizen.getNametagOffset());
-        double baseOffset = 1.65;
-        double extraPerScale = 0.40;
-        double yOffset = baseOffset * scale + (scale - 1.0) * extraPerScale;
-        double lineSpacing = 0.25;
-
-        Vector3d baseHologramPos = new Vector3d(
-                citizen.getPosition().x,
-                citizen.getPosition().y + yOffset,
-                citizen.getPosition().z
-        );
-        Vector3f hologramRot = new Vector3f(citizen.getRotation());
-
         world.execute(() -> {
             long chunkIndex = ChunkUtil.indexChunkFromBlock(citizen.getPosition().x, citizen.getPosition().z);
             WorldChunk chunk = world.getChunkIfLoaded(chunkIndex);
@@ -1519,88 +1820,48 @@ public class CitizensManager {
                 return;
             }
 
-            // Update existing lines
-            int linesToUpdate = Math.min(existingCount, newCount);
-            for (int i = 0; i < linesToUpdate; i++) {
-                UUID uuid = existingUuids.get(i);
-                String lineText = nonEmptyLines.get(i);
+            List<UUID> existingUuids = citizen.getHologramLineUuids();
+
+            if (usesNpcNameplate(citizen, lines)) {
+                removeHologramEntities(world, existingUuids);
+                existingUuids.clear();
+                applyNpcNameplate(citizen, lines.get(0));
+            } else {
+                removeNpcNameplate(citizen);
+
+                String text = String.join("\n", lines);
+                Ref<EntityStore> carrier = existingUuids.size() == 1 && existingUuids.get(0) != null
+                        ? world.getEntityRef(existingUuids.get(0)) : null;
 
-                Ref<EntityStore> entity = world.getEntityRef(uuid);
-                if (entity != null) {
-                    // Update position
-                    Vector3d linePos = new Vector3d(
-                            baseHologramPos.x,
-                            baseHologramPos.y + ((newCount - 1 - i) * lineSpacing),
-                            baseHologramPos.z
-                    );
+                if (carrier != null) {
+                    // Update the existing carrier in place
+                    citizen.refreshNametagLayout(1);
 
-                    TransformComponent transform = entity.getStore().getComponent(entity, TransformComponent.getComponentType());
+                    TransformComponent transform = carrier.getStore().getComponent(carrier, TransformComponent.getComponentType());
                     if (transform != null) {
-                        transform.setPosition(linePos);
-                        transform.setRotation(hologramRot);
+                        transform.setPosition(new Vector3d(
+                                citizen.getPosition().x,
+                                citizen.getPosition().y + citizen.getNametagYOffset(),
+                                citizen.getPosition().z
+                        ));
+                        transform.setRotation(new Vector3f(citizen.getRotation()));
                     }
 
-                    // Update text
-                    Nameplate nameplate = entity.getStore().getComponent(entity, Nameplate.getComponentType());
+                    Nameplate nameplate = carrier.getStore().getComponent(carrier, Nameplate.getComponentType());
                     if (nameplate != null) {
-                        nameplate.setText(lineText);
+                        nameplate.setText(text);
                     }
+                } else {
+                    // Missing carrier or the old one entity per line layout
+                    removeHologramEntities(world, existingUuids);
+                    existingUuids.clear();
+                    citizen.invalidateHologramLineRefs();
+                    spawnNametagCarrier(citizen, world, text);
                 }
             }
 
-            // Despawn extra lines if new text has fewer lines
-            if (existingCount > newCount) {
-                for (int i = newCount; i < existingCount; i++) {
-                    UUID uuid = existingUuids.get(i);
-                    Ref<EntityStore> entity = world.getEntityRef(uuid);
-                    if (entity != null) {
-                        world.getEntityStore().getStore().removeEntity(entity, RemoveReason.REMOVE);
-                    }
-                }
-                // Remove the extra UUIDs from the list
-                existingUuids.subList(newCount, existingCount).clear();
-            }
-
-            // Spawn new lines if needed
-            if (newCount > existingCount) {
-                for (int i = existingCount; i < newCount; i++) {
-                    String lineText = nonEmptyLines.get(i);
-
-                    Vector3d linePos = new Vector3d(
-                            baseHologramPos.x,
-                            baseHologramPos.y + ((newCount - 1 - i) * lineSpacing),
-                            baseHologramPos.z
-                    );
-
-                    Holder<EntityStore> holder = EntityStore.REGISTRY.newHolder();
-
-                    ProjectileComponent projectileComponent = new ProjectileComponent("Projectile");
-                    holder.putComponent(ProjectileComponent.getComponentType(), projectileComponent);
-
-                    holder.putComponent(TransformComponent.getComponentType(), new TransformComponent(linePos, hologramRot));
-                    holder.ensureComponent(UUIDComponent.getComponentType());
-
-                    if (projectileComponent.getProjectile() == null) {
-                        projectileComponent.initialize();
-                        if (projectileComponent.getProjectile() == null) {
-                            continue;
-                        }
-                    }
-
-                    holder.addComponent(
-                            NetworkId.getComponentType(),
-                            new NetworkId(world.getEntityStore().getStore().getExternalData().takeNextNetworkId())
-                    );
-
-                    UUIDComponent hologramUUIDComponent = holder.getComponent(UUIDComponent.getComponentType());
-                    if (hologramUUIDComponent != null) {
-                        existingUuids.add(hologramUUIDComponent.getUuid());
-                    }
-
-                    holder.addComponent(Nameplate.getComponentType(), new Nameplate(lineText));
-                    world.getEntityStore().getStore().addEntity(holder, AddReason.SPAWN);
-                }
-            }
+            // The carrier or its layout changed, so the follow system must re-resolve it
+            citizen.invalidateHologramLineRefs();
 
             if (save) {
                 saveCitizen(citizen);
@@ -1608,20 +1869,46 @@ public class CitizensManager {
         });
     }
 
+    private static void removeHologramEntities(@Nonnull World world, @Nonnull List<UUID> hologramUuids) {
+        for (UUID uuid : hologramUuids) {
+            if (uuid == null) {
+                continue;
+            }
+
+            Ref<EntityStore> entity = world.getEntityRef(uuid);
+            if (entity != null) {
+                world.getEntityStore().getStore().removeEntity(entity, RemoveReason.REMOVE);
+            }
+        }
+    }
+
     public void rotateCitizenToPlayer(CitizenData citizen, PlayerRef playerRef) {
-        if (citizen == null || citizen.getSpawnedUUID() == null || citizen.getNpcRef() == null || !citizen.getNpcRef().isValid()) {
+        EntityUpdate entityUpdate = buildLookAtUpdate(citizen, playerRef, LookAtLod.NEAR_THRESHOLD);
+        if (entityUpdate == null) {
             return;
         }
 
+        // Send the packet
+        EntityUpdates packet = new EntityUpdates(null, new EntityUpdate[] { entityUpdate });
+        playerRef.getPacketHandler().write(packet);
+    }
+
+    // Builds the look-at update for one viewer, or null when the rotation has not changed enough to be worth sending
+    @Nullable
+    private EntityUpdate buildLookAtUpdate(CitizenData citizen, PlayerRef playerRef, float threshold) {
+        if (citizen == null || citizen.getSpawnedUUID() == null || citizen.getNpcRef() == null || !citizen.getNpcRef().isValid()) {
+            return null;
+        }
+
         if (citizen.getNpcRef().getStore() == null) {
-            return;
+            return null;
         }
 
         NetworkId citizenNetworkId = citizen.getNpcRef().getStore().getComponent(citizen.getNpcRef(), NetworkId.getComponentType());
         if (citizenNetworkId != null) {
             TransformComponent npcTransformComponent = citizen.getNpcRef().getStore().getComponent(citizen.getNpcRef(), TransformComponent.getComponentType());
             if (npcTransformComponent == null) {
-                return;
+                return null;
             }
 
             // Calculate rotation to look at player
@@ -1638,25 +1925,15 @@ public class CitizensManager {
             double horizontalDistance = Math.sqrt(dx * dx + dz * dz);
             float pitch = (float) Math.atan2(dy, horizontalDistance);
 
-            // Create directions
-            Direction lookDirection = new Direction(yaw, pitch, 0f);
-            Direction bodyDirection = new Direction(yaw, 0f, 0f);
-
             // Don't rotate if the player barely moved
-            UUID playerUUID = playerRef.getUuid();
-            Direction lastLook = citizen.lastLookDirections.get(playerUUID);
-            if (lastLook != null) {
-                float yawThreshold = 0.02f;
-                float pitchThreshold = 0.02f;
-                float yawDiff = Math.abs(lookDirection.yaw - lastLook.yaw);
-                float pitchDiff = Math.abs(lookDirection.pitch - lastLook.pitch);
-
-                if (yawDiff < yawThreshold && pitchDiff < pitchThreshold) {
-                    return;
-                }
+            ObserverStateStore.PlayerState observer = observerStates.get(playerRef.getUuid());
+            if (!observer.updateLook(observerStates.indexOf(citizen), yaw, pitch, threshold)) {
+                return null;
             }
 
-            citizen.lastLookDirections.put(playerUUID, lookDirection);
+            // Create directions
+            Direction lookDirection = new Direction(yaw, pitch, 0f);
+            Direction bodyDirection = new Direction(yaw, 0f, 0f);
 
             // Create ModelTransform
             ModelTransform transform = new ModelTransform();
@@ -1667,16 +1944,14 @@ public class CitizensManager {
             TransformUpdate update = new TransformUpdate(transform);
 
             // Create EntityUpdate
-            EntityUpdate entityUpdate = new EntityUpdate(
+            return new EntityUpdate(
                     citizenNetworkId.getId(),
                     null,
                     new ComponentUpdate[] { update }
             );
-
-            // Send the packet
-            EntityUpdates packet = new EntityUpdates(null, new EntityUpdate[] { entityUpdate });
-            playerRef.getPacketHandler().write(packet);
         }
+
+        return null;
     }
 
     @Nullable
@@ -1684,6 +1959,47 @@ public class CitizensManager {
         return citizens.get(citizenId);
     }
 
+    // Citizens whose chunk has unloaded and that are waiting to be rebound
+    public int getDormantCitizenCount() {
+        return worldRegistry.getDormantCount();
+    }
+
+    @Nonnull
+    public CitizenTickEngine getTickEngine() {
+        return tickEngine;
+    }
+
+    @Nonnull
+    public LookAtLod getLookAtLod() {
+        return lookAtLod;
+    }
+
+    @Nonnull
+    public ObserverStateStore getObserverStates() {
+        return observerStates;
+    }
+
+    @Nullable
+    public CitizenData getCitizenBySpawnedUUID(@Nonnull UUID spawnedUUID) {
+        return citizensBySpawnedUUID.get(spawnedUUID);
+    }
+
+    @Nullable
+    public CitizenData getCitizenForEntity(@Nonnull Ref<EntityStore> ref, @Nonnull Store<EntityStore> store) {
+        CitizenComponent citizenComponent = store.getComponent(ref, CitizenComponent.getComponentType());
+        if (citizenComponent != null) {
+            return citizens.get(citizenComponent.getCitizenId());
+        }
+
+        // Entity has not been migrated yet
+        UUIDComponent uuidComponent = store.getComponent(ref, UUIDComponent.getComponentType());
+        if (uuidComponent == null) {
+            return null;
+        }
+
+        return citizensBySpawnedUUID.get(uuidComponent.getUuid());
+    }
+
     @Nonnull
     public List<CitizenData> getAllCitizens() {
         return new ArrayList<>(citizens.values());
@@ -1700,70 +2016,145 @@ public class CitizensManager {
     @Nonnull
     public List<CitizenData> getCitizensNear(@Nonnull Vector3d position, double maxDistance) {
         List<CitizenData> nearby = new ArrayList<>();
-        double maxDistSq = maxDistance * maxDistance;
+        for (UUID worldUUID : spatialIndex.getWorlds()) {
+            nearby.addAll(spatialIndex.getCitizensNear(worldUUID, position, maxDistance));
+        }
+        return nearby;
+    }
 
-        for (CitizenData citizen : citizens.values()) {
-            Vector3d citizenPos = citizen.getPosition();
+    @Nonnull
+    public List<CitizenData> getCitizensNear(@Nonnull UUID worldUUID, @Nonnull Vector3d position, double maxDistance) {
+        return spatialIndex.getCitizensNear(worldUUID, position, maxDistance);
+    }
 
-            double dx = citizenPos.x - position.x;
-            double dy = citizenPos.y - position.y;
-            double dz = citizenPos.z - position.z;
+    @Nonnull
+    public List<CitizenData> getCitizensInBox(@Nonnull UUID worldUUID, @Nonnull Vector3d min, @Nonnull Vector3d max) {
+        return spatialIndex.getCitizensInBox(worldUUID, min, max);
+    }
 
-            double distSq = dx * dx + dy * dy + dz * dz;
+    @Nonnull
+    public List<CitizenData> getCitizensInChunk(@Nonnull UUID worldUUID, long chunkIndex) {
+        return spatialIndex.getCitizensInChunk(worldUUID, chunkIndex);
+    }
 
-            if (distSq <= maxDistSq) {
-                nearby.add(citizen);
-            }
-        }
+    // Citizens whose entity was saved with this chunk while their home chunk is elsewhere
+    @Nonnull
+    public List<CitizenData> getCitizensAwayInChunk(@Nonnull UUID worldUUID, long chunkIndex) {
+        return spatialIndex.getCitizensAwayInChunk(worldUUID, chunkIndex);
+    }
 
-        return nearby;
+    public boolean isCitizenAway(@Nonnull CitizenData citizen) {
+        return spatialIndex.isAway(citizen);
     }
 
-    private void startAnimationScheduler() {
-        animationTask = HytaleServer.SCHEDULED_EXECUTOR.scheduleAtFixedRate(() -> {
-            long now = System.currentTimeMillis();
+    // Drops the per-world tick state of a world that was removed. Queued respawns are kept, since they only hold citizens
+    // and the world may be added again
+    public void onWorldRemoved(@Nonnull UUID worldUUID) {
+        tickEngine.removeWorld(worldUUID);
+        pendingSpawnQueues.remove(worldUUID);
+        animationStopTimers.remove(worldUUID);
+        pendingAnimationReschedules.remove(worldUUID);
+    }
 
-            for (CitizenData citizen : citizens.values()) {
-                if (citizen.getSpawnedUUID() == null || citizen.getNpcRef() == null)
-                    continue;
+    // Asks the citizen's world to rebuild its timed animation schedule on the next tick
+    public void markAnimationsDirty(@Nonnull CitizenData citizen) {
+        getPendingAnimationReschedules(citizen.getWorldUUID()).add(citizen);
+    }
 
-                for (AnimationBehavior ab : citizen.getAnimationBehaviors()) {
-                    if (!"TIMED".equals(ab.getType()) && !"DEFAULT".equals(ab.getType()))
-                        continue;
+    // Spawn work waiting on a chunk in the given world, drained from that world's tick
+    @Nonnull
+    public PendingSpawnQueue getPendingSpawnQueue(@Nonnull World world) {
+        return pendingSpawnQueues.computeIfAbsent(world.getWorldConfig().getUuid(), k -> new PendingSpawnQueue(world, spawnPipeline));
+    }
 
-                    // DEFAULT animations loop every 2 seconds to keep them playing
-                    if ("DEFAULT".equals(ab.getType())) {
-                        String key = "default_" + ab.getAnimationName() + "_" + ab.getAnimationSlot();
-                        long lastPlay = citizen.getLastTimedAnimationPlay().getOrDefault(key, 0L);
-                        if (now - lastPlay >= 2000) {
-                            citizen.getLastTimedAnimationPlay().put(key, now);
-                            World world = Universe.get().getWorld(citizen.getWorldUUID());
-                            if (world != null) {
-                                world.execute(() -> {
-                                    playAnimationForCitizen(citizen, ab.getAnimationName(), ab.getAnimationSlot(), ab);
-                                });
-                            }
-                        }
-                        continue;
-                    }
+    @Nonnull
+    public RespawnQueue getRespawnQueue(@Nonnull UUID worldUUID) {
+        return respawnQueues.computeIfAbsent(worldUUID, k -> new RespawnQueue(this, spawnPipeline));
+    }
+
+    // Queues a dead citizen for respawn at its respawn time, or right away if none is set. The respawn time is persisted
+    // so a restart does not lose it
+    public void scheduleRespawn(@Nonnull CitizenData citizen) {
+        if (citizen.getRespawnAt() <= 0) {
+            citizen.setRespawnAt(System.currentTimeMillis());
+        }
 
-                    String key = ab.getAnimationName() + "_" + ab.getAnimationSlot();
-                    long lastPlay = citizen.getLastTimedAnimationPlay().getOrDefault(key, 0L);
-                    long intervalMs = (long) (ab.getIntervalSeconds() * 1000);
+        citizen.setLifecycle(CitizenLifecycle.DEAD_AWAITING_RESPAWN);
+        getRespawnQueue(citizen.getWorldUUID()).schedule(citizen);
+    }
 
-                    if (now - lastPlay >= intervalMs) {
-                        citizen.getLastTimedAnimationPlay().put(key, now);
+    // Drops a death respawn the citizen is still waiting on, including its saved respawn time. The only path that clears a
+    // respawn; spawns and despawns call it before they overwrite the lifecycle, so the respawn time is never left behind
+    private void cancelPendingRespawn(@Nonnull CitizenData citizen) {
+        if (citizen.getRespawnAt() <= 0) {
+            return;
+        }
 
-                        World world = Universe.get().getWorld(citizen.getWorldUUID());
-                        if (world != null) {
-                            world.execute(() -> {
-                                playAnimationForCitizen(citizen, ab.getAnimationName(), ab.getAnimationSlot(), ab);
-                            });
-                        }
-                    }
+        citizen.setRespawnAt(0);
+        getRespawnQueue(citizen.getWorldUUID()).cancel(citizen);
+    }
+
+    // Called by the respawn queue on the world thread once the respawn is due. Returns false if it was cancelled meanwhile
+    boolean respawnDeadCitizen(@Nonnull CitizenData citizen) {
+        // Removed or replaced by a reload
+        if (citizens.get(citizen.getId()) != citizen) {
+            return false;
+        }
+
+        // A despawn or explicit respawn in the meantime cancels this one
+        if (!citizen.compareAndSetLifecycle(CitizenLifecycle.DEAD_AWAITING_RESPAWN, CitizenLifecycle.UNLOADED)) {
+            return false;
+        }
+
+        citizen.setRespawnAt(0);
+        spawnCitizen(citizen, true);
+        return true;
+    }
+
+    // Writes only the respawn times, in one batch, instead of saving each citizen in full
+    void saveRespawnTimes(@Nonnull List<CitizenData> changed) {
+        config.beginBatch();
+        try {
+            for (CitizenData citizen : changed) {
+                if (citizens.get(citizen.getId()) != citizen) {
+                    continue;
                 }
+
+                long respawnAt = citizen.getRespawnAt();
+                config.set("citizens." + citizen.getId() + ".respawn-at", respawnAt > 0 ? respawnAt : null);
             }
-        }, 1, 1, TimeUnit.SECONDS);
+        } finally {
+            config.endBatch();
+        }
+    }
+
+    @Nonnull
+    public AiDormancy getAiDormancy() {
+        return aiDormancy;
+    }
+
+    @Nonnull
+    public SpawnPipeline getSpawnPipeline() {
+        return spawnPipeline;
+    }
+
+    // Spawns across all worlds that are waiting on a chunk or on the per-tick budget
+    public int getPendingSpawnCount() {
+        int count = 0;
+        for (PendingSpawnQueue queue : pendingSpawnQueues.values()) {
+            count += queue.size();
+        }
+        return count;
+    }
+
+    @Nonnull
+    private AnimationStopTimers getAnimationStopTimers(@Nonnull UUID worldUUID) {
+        return animationStopTimers.computeIfAbsent(worldUUID, k -> new AnimationStopTimers());
+    }
+
+    @Nonnull
+    private Set<CitizenData> getPendingAnimationReschedules(@Nonnull UUID worldUUID) {
+        return pendingAnimationReschedules.computeIfAbsent(worldUUID, k -> ConcurrentHashMap.newKeySet());
     }
 
     public void playAnimationForCitizen(@Nonnull CitizenData citizen, @Nonnull String animName, int slot) {
@@ -1784,14 +2175,9 @@ public class CitizensManager {
 
         AnimationUtils.playAnimation(npc.getReference(), slots[slot], animName, false, npc.getReference().getStore());
 
-        // Handle stop-after-time logic
-        String taskKey = animName + "_" + slot;
-
-        // Cancel any existing stop task for this animation
-        ScheduledFuture<?> existingTask = citizen.getAnimationStopTasks().get(taskKey);
-        if (existingTask != null && !existingTask.isDone()) {
-            existingTask.cancel(false);
-        }
+        // Handle stop-after-time logic. A new animation in a slot always replaces that slot's pending stop
+        AnimationStopTimers stopTimers = getAnimationStopTimers(citizen.getWorldUUID());
+        stopTimers.cancel(citizen.getId(), slot);
 
         // Determine stop behavior
         boolean shouldStop = false;
@@ -1813,40 +2199,20 @@ public class CitizensManager {
                     stopAnimName = "Idle";
                 }
             }
-        } else if (behavior == null || !"DEFAULT".equals(behavior.getType())) {
+        } else if (behavior == null || behavior.getTrigger() != AnimationTrigger.DEFAULT) {
             // Legacy behavior: stop after 3 seconds for non-DEFAULT animations
             shouldStop = true;
         }
 
         if (shouldStop) {
-            int finalSlot = slot;
-            String finalStopAnimName = stopAnimName;
-            ScheduledFuture<?> stopTask = HytaleServer.SCHEDULED_EXECUTOR.schedule(() -> {
-                if (npc.getReference() == null || !npc.getReference().isValid())
-                    return;
-
-                World world = Universe.get().getWorld(citizen.getWorldUUID());
-                if (world == null)
-                    return;
-
-                world.execute(() -> {
-                    AnimationUtils.playAnimation(npc.getReference(), slots[finalSlot], finalStopAnimName, false, npc.getReference().getStore());
-                });
-
-                // Remove from tracking map
-                citizen.getAnimationStopTasks().remove(taskKey);
-
-            }, (long)(stopTime * 1000), TimeUnit.MILLISECONDS);
-
-            // Track the stop task
-            citizen.getAnimationStopTasks().put(taskKey, stopTask);
+            stopTimers.schedule(citizen.getId(), slot, npc.getReference(), stopAnimName, (long) (stopTime * 1000));
         }
     }
 
     @Nullable
     private String findDefaultAnimation(@Nonnull CitizenData citizen, int slot) {
-        for (AnimationBehavior ab : citizen.getAnimationBehaviors()) {
-            if ("DEFAULT".equals(ab.getType()) && ab.getAnimationSlot() == slot) {
+        for (AnimationBehavior ab : citizen.getAnimationBehaviors(AnimationTrigger.DEFAULT)) {
+            if (ab.getAnimationSlot() == slot) {
                 return ab.getAnimationName();
             }
         }
@@ -1854,46 +2220,66 @@ public class CitizensManager {
     }
 
     public void triggerAnimations(@Nonnull CitizenData citizen, @Nonnull String type) {
+        AnimationTrigger trigger = AnimationTrigger.fromString(type);
+        if (trigger != null) {
+            triggerAnimations(citizen, trigger);
+        }
+    }
+
+    public void triggerAnimations(@Nonnull CitizenData citizen, @Nonnull AnimationTrigger trigger) {
         if (citizen.getNpcRef() == null || !citizen.getNpcRef().isValid())
             return;
 
-        for (AnimationBehavior ab : citizen.getAnimationBehaviors()) {
-            if (ab.getType().equals(type)) {
-                World world = Universe.get().getWorld(citizen.getWorldUUID());
-                if (world != null) {
-                    world.execute(() -> {
-                        playAnimationForCitizen(citizen, ab.getAnimationName(), ab.getAnimationSlot(), ab);
-                    });
-                }
+        AnimationBehavior[] behaviors = citizen.getAnimationBehaviors(trigger);
+        if (behaviors.length == 0)
+            return;
+
+        World world = Universe.get().getWorld(citizen.getWorldUUID());
+        if (world == null)
+            return;
+
+        world.execute(() -> {
+            for (AnimationBehavior ab : behaviors) {
+                playAnimationForCitizen(citizen, ab.getAnimationName(), ab.getAnimationSlot(), ab);
             }
-        }
+        });
     }
 
-    private void checkProximityAnimations(@Nonnull CitizenData citizen, @Nonnull PlayerRef playerRef, double distanceSq) {
-        UUID playerUUID = playerRef.getUuid();
+    private void checkProximityAnimations(@Nonnull CitizenData citizen, @Nonnull AnimationBehavior[] proximityBehaviors,
+                                          @Nonnull PlayerRef playerRef, double distanceSq) {
+        ObserverStateStore.PlayerState observer = observerStates.get(playerRef.getUuid());
+        int citizenIndex = observerStates.indexOf(citizen);
 
-        for (AnimationBehavior ab : citizen.getAnimationBehaviors()) {
-            if (!"ON_PROXIMITY_ENTER".equals(ab.getType()) && !"ON_PROXIMITY_EXIT".equals(ab.getType()))
-                continue;
+        // One in-range bit per proximity behavior, so enter and exit behaviors with different ranges track independently
+        long previousMask = observer.getProximityMask(citizenIndex);
+        long mask = previousMask;
+
+        int count = Math.min(proximityBehaviors.length, Long.SIZE);
+        for (int i = 0; i < count; i++) {
+            AnimationBehavior ab = proximityBehaviors[i];
 
             float range = ab.getProximityRange();
             double rangeSq = range * range;
-            //String key = citizen.getId() + "_" + playerUUID;
-            boolean wasInRange = citizen.getPlayersInProximity().getOrDefault(playerUUID, false);
+            long bit = 1L << i;
+            boolean wasInRange = (mask & bit) != 0;
             boolean isInRange = distanceSq <= rangeSq;
 
             if (isInRange && !wasInRange) {
-                citizen.getPlayersInProximity().put(playerUUID, true);
-                if ("ON_PROXIMITY_ENTER".equals(ab.getType())) {
+                mask |= bit;
+                if (ab.getTrigger() == AnimationTrigger.ON_PROXIMITY_ENTER) {
                     playAnimationForCitizen(citizen, ab.getAnimationName(), ab.getAnimationSlot(), ab);
                 }
             } else if (!isInRange && wasInRange) {
-                citizen.getPlayersInProximity().put(playerUUID, false);
-                if ("ON_PROXIMITY_EXIT".equals(ab.getType())) {
+                mask &= ~bit;
+                if (ab.getTrigger() == AnimationTrigger.ON_PROXIMITY_EXIT) {
                     playAnimationForCitizen(citizen, ab.getAnimationName(), ab.getAnimationSlot(), ab);
                 }
             }
         }
+
+        if (mask != previousMask) {
+            observer.setProximityMask(citizenIndex, mask);
+        }
     }
 
     @Nonnull
@@ -1936,6 +2322,11 @@ public class CitizensManager {
 
                 world.execute(() -> {
                     try {
+                        // A dormant NPC keeps the static role. Waking it applies the generated role, which is indexed by now
+                        if (citizen.isAiDormant()) {
+                            return;
+                        }
+
                         NPCEntity npcEntity = citizen.getNpcRef().getStore().getComponent(
                                 citizen.getNpcRef(), NPCEntity.getComponentType());
                         if (npcEntity != null) {
@@ -0,0 +1,45 @@
+package com.electro.hycitizens.managers;
+
+import com.hypixel.hytale.protocol.EntityUpdate;
+import com.hypixel.hytale.protocol.packets.entities.EntityUpdates;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Collects entity updates per player during a tick so each player receives a single EntityUpdates packet
+public class EntityUpdateBatch {
+    private final Map<PlayerRef, List<EntityUpdate>> pending = new IdentityHashMap<>();
+    private final List<List<EntityUpdate>> freeLists = new ArrayList<>();
+
+    public void add(@Nonnull PlayerRef playerRef, @Nonnull EntityUpdate update) {
+        List<EntityUpdate> updates = pending.get(playerRef);
+        if (updates == null) {
+            updates = freeLists.isEmpty() ? new ArrayList<>() : freeLists.remove(freeLists.size() - 1);
+            pending.put(playerRef, updates);
+        }
+
+        updates.add(update);
+    }
+
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<PlayerRef, List<EntityUpdate>> entry : pending.entrySet()) {
+            List<EntityUpdate> updates = entry.getValue();
+
+            EntityUpdates packet = new EntityUpdates(null, updates.toArray(new EntityUpdate[0]));
+            entry.getKey().getPacketHandler().write(packet);
+
+            updates.clear();
+            freeLists.add(updates);
+        }
+
+        pending.clear();
+    }
+}
@@ -0,0 +1,62 @@
+package com.electro.hycitizens.managers;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.atomic.LongAdder;
+
+// Distance bands for look-at rotation. Near viewers get every tick, mid viewers a reduced rate and coarser threshold.
+// The mid band's rate and threshold are per-citizen settings, these are their defaults
+public class LookAtLod {
+    public static final float NEAR_THRESHOLD = 0.02f;
+    public static final float DEFAULT_MID_THRESHOLD = 0.08f;
+    public static final int DEFAULT_MID_TICK_INTERVAL = 3;
+
+    private final LongAdder[] suppressed = new LongAdder[Band.values().length];
+
+    public enum Band {
+        NEAR,
+        MID,
+        FAR
+    }
+
+    public LookAtLod() {
+        for (int i = 0; i < suppressed.length; i++) {
+            suppressed[i] = new LongAdder();
+        }
+    }
+
+    @Nonnull
+    public static Band bandFor(double distanceSq, float nearRange, float lookAtRange) {
+        if (distanceSq <= (double) nearRange * nearRange) {
+            return Band.NEAR;
+        }
+
+        if (distanceSq <= (double) lookAtRange * lookAtRange) {
+            return Band.MID;
+        }
+
+        return Band.FAR;
+    }
+
+    // Staggers mid band citizens across ticks so they do not all update on the same one
+    public static boolean isMidBandDue(long tickCount, @Nonnull String citizenId, int midTickInterval) {
+        return Math.floorMod(tickCount + citizenId.hashCode(), Math.max(1, midTickInterval)) == 0;
+    }
+
+    public static float thresholdFor(@Nonnull Band band, float midThreshold) {
+        return band == Band.NEAR ? NEAR_THRESHOLD : midThreshold;
+    }
+
+    public void recordSuppressed(@Nonnull Band band) {
+        suppressed[band.ordinal()].increment();
+    }
+
+    public long getSuppressed(@Nonnull Band band) {
+        return suppressed[band.ordinal()].sum();
+    }
+
+    public void reset() {
+        for (LongAdder adder : suppressed) {
+            adder.reset();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-player state about each citizen they have observed (last look-at direction, proximity bits and message index).
+// Citizens are addressed by a compact runtime index so a player's state is a handful of primitive arrays
+public class ObserverStateStore {
+    private final Map<UUID, PlayerState> players = new ConcurrentHashMap<>();
+    private final IntArrayList freeIndices = new IntArrayList();
+    private int nextIndex;
+
+    public static final class PlayerState {
+        private float[] lookYaw = new float[0];
+        private float[] lookPitch = new float[0];
+        private long[] proximityMask = new long[0];
+        private int[] messageIndex = new int[0];
+
+        // Returns true and records the direction when it differs from the last one sent by at least the threshold
+        public synchronized boolean updateLook(int citizenIndex, float yaw, float pitch, float threshold) {
+            ensureCapacity(citizenIndex);
+
+            float lastYaw = lookYaw[citizenIndex];
+            if (!Float.isNaN(lastYaw)
+                    && Math.abs(yaw - lastYaw) < threshold
+                    && Math.abs(pitch - lookPitch[citizenIndex]) < threshold) {
+                return false;
+            }
+
+            lookYaw[citizenIndex] = yaw;
+            lookPitch[citizenIndex] = pitch;
+            return true;
+        }
+
+        public synchronized long getProximityMask(int citizenIndex) {
+            return citizenIndex < proximityMask.length ? proximityMask[citizenIndex] : 0L;
+        }
+
+        public synchronized void setProximityMask(int citizenIndex, long mask) {
+            ensureCapacity(citizenIndex);
+            proximityMask[citizenIndex] = mask;
+        }
+
+        public synchronized int getMessageIndex(int citizenIndex) {
+            return citizenIndex < messageIndex.length ? messageIndex[citizenIndex] : 0;
+        }
+
+        public synchronized void setMessageIndex(int citizenIndex, int index) {
+            ensureCapacity(citizenIndex);
+            messageIndex[citizenIndex] = index;
+        }
+
+        private synchronized void clear(int citizenIndex) {
+            if (citizenIndex < lookYaw.length) {
+                lookYaw[citizenIndex] = Float.NaN;
+                lookPitch[citizenIndex] = 0f;
+                proximityMask[citizenIndex] = 0L;
+                messageIndex[citizenIndex] = 0;
+            }
+        }
+
+        private void ensureCapacity(int citizenIndex) {
+            if (citizenIndex < lookYaw.length) {
+                return;
+            }
+
+            int oldLength = lookYaw.length;
+            int newLength = Math.max(citizenIndex + 1, Math.max(16, oldLength * 2));
+
+            lookYaw = Arrays.copyOf(lookYaw, newLength);
+            Arrays.fill(lookYaw, oldLength, newLength, Float.NaN);
+            lookPitch = Arrays.copyOf(lookPitch, newLength);
+            proximityMask = Arrays.copyOf(proximityMask, newLength);
+            messageIndex = Arrays.copyOf(messageIndex, newLength);
+        }
+    }
+
+    @Nonnull
+    public PlayerState get(@Nonnull UUID playerUUID) {
+        return players.computeIfAbsent(playerUUID, k -> new PlayerState());
+    }
+
+    public void evict(@Nonnull UUID playerUUID) {
+        players.remove(playerUUID);
+    }
+
+    public int indexOf(@Nonnull CitizenData citizen) {
+        int index = citizen.getObserverIndex();
+        if (index >= 0) {
+            return index;
+        }
+
+        synchronized (this) {
+            index = citizen.getObserverIndex();
+            if (index < 0) {
+                index = freeIndices.isEmpty() ? nextIndex++ : freeIndices.removeInt(freeIndices.size() - 1);
+                citizen.setObserverIndex(index);
+            }
+            return index;
+        }
+    }
+
+    // Frees the citizen's index so it can be reused, wiping whatever players had stored for it
+    public void release(@Nonnull CitizenData citizen) {
+        synchronized (this) {
+            int index = citizen.getObserverIndex();
+            if (index < 0) {
+                return;
+            }
+
+            citizen.setObserverIndex(-1);
+            for (PlayerState state : players.values()) {
+                state.clear(index);
+            }
+            freeIndices.add(index);
+        }
+    }
+
+    // Only valid when every previously indexed citizen is being discarded, as on a full reload
+    public synchronized void clear() {
+        players.clear();
+        freeIndices.clear();
+        nextIndex = 0;
+    }
+}
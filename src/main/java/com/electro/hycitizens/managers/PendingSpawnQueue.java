@@ -0,0 +1,385 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import com.hypixel.hytale.server.core.universe.world.World;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import static com.hypixel.hytale.logger.HytaleLogger.getLogger;
+
+// Spawn work for one world. Entries wait grouped by chunk and a chunk is only probed when something signals it may be
+// loaded: once right after an enqueue, and every tick from the chunk's preload event until it has loaded. Waiting
+// chunks cost nothing per tick, and a single sweep expires entries whose chunk never loaded. Once a chunk loads its
+// entries join a backlog that is drained within the pipeline's per-tick budget, citizens closest to a player first.
+// Distance is measured once, when an entry becomes ready, and the backlog is a heap so a tick only pays for what it spawns
+public class PendingSpawnQueue implements CitizenTickEngine.Handler {
+    public static final long DEFAULT_TIMEOUT_MS = 15_000;
+
+    // Ties keep the order entries became ready in, so citizens nobody is near are first come first served
+    private static final Comparator<PendingSpawn> BY_PRIORITY = Comparator.<PendingSpawn>comparingDouble(pending -> pending.priority)
+            .thenComparingLong(pending -> pending.readySequence);
+
+    private final WorldView world;
+    private final SpawnPipeline pipeline;
+    private final Long2ObjectOpenHashMap<List<PendingSpawn>> byChunk = new Long2ObjectOpenHashMap<>();
+    // Chunks to probe once on the next tick, and chunks that are loading and probed every tick until they are loaded
+    private final LongOpenHashSet probeOnce = new LongOpenHashSet();
+    private final LongOpenHashSet loading = new LongOpenHashSet();
+    private final Map<String, PendingSpawn> byKey = new HashMap<>();
+    // Cancelled and replaced entries are left in the heap and skipped when they reach the top
+    private final PriorityQueue<PendingSpawn> backlog = new PriorityQueue<>(BY_PRIORITY);
+    private int readyCount;
+    private long nextReadySequence;
+    private final List<PendingSpawn> expired = new ArrayList<>();
+    private final List<PendingSpawn> candidates = new ArrayList<>();
+    private int playerCount = -1;
+    private double[] playerXs = new double[8];
+    private double[] playerZs = new double[8];
+    private long nextExpiry = Long.MAX_VALUE;
+
+    private static final class PendingSpawn {
+        private final String key;
+        private final CitizenData citizen;
+        private final long chunkIndex;
+        private long deadline;
+        private final Runnable onLoaded;
+        private final Runnable onTimeout;
+        private boolean ready;
+        private double priority;
+        private long readySequence;
+
+        private PendingSpawn(@Nonnull String key, @Nonnull CitizenData citizen, long chunkIndex, long deadline,
+                             @Nonnull Runnable onLoaded, @Nullable Runnable onTimeout) {
+            this.key = key;
+            this.citizen = citizen;
+            this.chunkIndex = chunkIndex;
+            this.deadline = deadline;
+            this.onLoaded = onLoaded;
+            this.onTimeout = onTimeout;
+        }
+    }
+
+    // The parts of a world the queue reads
+    interface WorldView {
+        boolean isChunkLoaded(long chunkIndex);
+
+        @Nonnull
+        List<Vector3d> getPlayerPositions();
+    }
+
+    public PendingSpawnQueue(@Nonnull World world, @Nonnull SpawnPipeline pipeline) {
+        this(new WorldView() {
+            @Override
+            public boolean isChunkLoaded(long chunkIndex) {
+                return world.getChunkIfLoaded(chunkIndex) != null;
+            }
+
+            @Nonnull
+            @Override
+            public List<Vector3d> getPlayerPositions() {
+                Collection<PlayerRef> players = world.getPlayerRefs();
+                List<Vector3d> positions = new ArrayList<>(players.size());
+                for (PlayerRef playerRef : players) {
+                    positions.add(playerRef.getTransform().getPosition());
+                }
+                return positions;
+            }
+        }, pipeline);
+    }
+
+    PendingSpawnQueue(@Nonnull WorldView world, @Nonnull SpawnPipeline pipeline) {
+        this.world = world;
+        this.pipeline = pipeline;
+    }
+
+    // Runs onLoaded on the world thread once the chunk is loaded. A later enqueue with the same key replaces this one.
+    // If the chunk is still not loaded after the timeout, onTimeout runs instead (when given)
+    public void enqueue(@Nonnull String key, @Nonnull CitizenData citizen, long chunkIndex, @Nonnull Runnable onLoaded, @Nullable Runnable onTimeout) {
+        long deadline = System.currentTimeMillis() + DEFAULT_TIMEOUT_MS;
+        PendingSpawn pending = new PendingSpawn(key, citizen, chunkIndex, deadline, onLoaded, onTimeout);
+
+        synchronized (this) {
+            unlink(byKey.put(key, pending));
+            park(pending);
+            probeOnce.add(chunkIndex);
+            nextExpiry = Math.min(nextExpiry, deadline);
+        }
+
+        pipeline.recordQueued();
+    }
+
+    // Called from the chunk's preload event. Its entries are probed every tick until the chunk has finished loading
+    public synchronized void onChunkLoading(long chunkIndex) {
+        if (byChunk.containsKey(chunkIndex)) {
+            loading.add(chunkIndex);
+        }
+    }
+
+    public synchronized boolean cancel(@Nonnull String key) {
+        PendingSpawn pending = byKey.remove(key);
+        unlink(pending);
+        return pending != null;
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    // Entries whose chunk has loaded and that are only waiting on the budget
+    public synchronized int backlogSize() {
+        return readyCount;
+    }
+
+    @Override
+    public void beginTick(long now) {
+        synchronized (this) {
+            if (byKey.isEmpty()) {
+                probeOnce.clear();
+                loading.clear();
+                backlog.clear();
+                return;
+            }
+
+            playerCount = -1;
+            collectLoadedAndExpired(now);
+
+            int maxPerTick = pipeline.getMaxPerTick();
+            PendingSpawn pending;
+            while (candidates.size() < maxPerTick && (pending = backlog.poll()) != null) {
+                if (pending.ready && byKey.get(pending.key) == pending) {
+                    candidates.add(pending);
+                }
+            }
+        }
+
+        // Callbacks run outside the lock so they are free to enqueue follow-up work
+        try {
+            for (PendingSpawn pending : expired) {
+                pipeline.recordExpired();
+                if (pending.onTimeout != null) {
+                    run(pending.onTimeout, pending.key);
+                }
+            }
+
+            long budgetStart = System.nanoTime();
+            long maxNanos = pipeline.getMaxNanosPerTick();
+
+            for (int i = 0; i < candidates.size(); i++) {
+                if (System.nanoTime() - budgetStart >= maxNanos) {
+                    requeue(candidates.subList(i, candidates.size()));
+                    break;
+                }
+
+                PendingSpawn pending = candidates.get(i);
+
+                if (!claim(pending)) {
+                    continue;
+                }
+
+                long start = System.nanoTime();
+                run(pending.onLoaded, pending.key);
+                pipeline.recordSpawned(System.nanoTime() - start);
+            }
+        } finally {
+            expired.clear();
+            candidates.clear();
+        }
+
+        if (backlogSize() > 0) {
+            pipeline.recordDeferred();
+        }
+    }
+
+    private void collectLoadedAndExpired(long now) {
+        if (!probeOnce.isEmpty()) {
+            LongIterator iterator = probeOnce.iterator();
+            while (iterator.hasNext()) {
+                long chunkIndex = iterator.nextLong();
+                if (!loading.contains(chunkIndex) && byChunk.containsKey(chunkIndex) && world.isChunkLoaded(chunkIndex)) {
+                    markReady(byChunk.remove(chunkIndex));
+                }
+            }
+            probeOnce.clear();
+        }
+
+        if (!loading.isEmpty()) {
+            LongIterator iterator = loading.iterator();
+            while (iterator.hasNext()) {
+                long chunkIndex = iterator.nextLong();
+                if (!byChunk.containsKey(chunkIndex)) {
+                    iterator.remove();
+                } else if (world.isChunkLoaded(chunkIndex)) {
+                    markReady(byChunk.remove(chunkIndex));
+                    iterator.remove();
+                }
+            }
+        }
+
+        if (now < nextExpiry) {
+            return;
+        }
+
+        nextExpiry = Long.MAX_VALUE;
+
+        ObjectIterator<Long2ObjectMap.Entry<List<PendingSpawn>>> iterator = byChunk.long2ObjectEntrySet().fastIterator();
+        while (iterator.hasNext()) {
+            Long2ObjectMap.Entry<List<PendingSpawn>> chunkEntry = iterator.next();
+            List<PendingSpawn> entries = chunkEntry.getValue();
+
+            // Entries are appended in enqueue order, so the expired ones form a prefix
+            int expiredCount = 0;
+            while (expiredCount < entries.size() && entries.get(expiredCount).deadline <= now) {
+                expiredCount++;
+            }
+
+            if (expiredCount == 0) {
+                nextExpiry = Math.min(nextExpiry, entries.get(0).deadline);
+                continue;
+            }
+
+            // One last probe, in case the chunk finished loading without a signal reaching this queue
+            if (world.isChunkLoaded(chunkEntry.getLongKey())) {
+                markReady(entries);
+                loading.remove(chunkEntry.getLongKey());
+                iterator.remove();
+                continue;
+            }
+
+            for (int i = 0; i < expiredCount; i++) {
+                PendingSpawn pending = entries.get(i);
+                byKey.remove(pending.key, pending);
+                expired.add(pending);
+            }
+
+            entries.subList(0, expiredCount).clear();
+            if (!entries.isEmpty()) {
+                nextExpiry = Math.min(nextExpiry, entries.get(0).deadline);
+                continue;
+            }
+
+            loading.remove(chunkEntry.getLongKey());
+            iterator.remove();
+        }
+    }
+
+    private void markReady(@Nonnull List<PendingSpawn> entries) {
+        for (PendingSpawn pending : entries) {
+            pending.ready = true;
+            pending.priority = distanceToClosestPlayer(pending);
+            pending.readySequence = nextReadySequence++;
+            readyCount++;
+            backlog.add(pending);
+        }
+    }
+
+    // Candidates the time budget did not reach go back for the next tick, unless they were cancelled meanwhile
+    private synchronized void requeue(@Nonnull List<PendingSpawn> unclaimed) {
+        for (PendingSpawn pending : unclaimed) {
+            if (pending.ready && byKey.get(pending.key) == pending) {
+                backlog.add(pending);
+            }
+        }
+    }
+
+    // Squared distance to the closest player, read once per tick. Citizens nobody is near go to the back
+    private double distanceToClosestPlayer(@Nonnull PendingSpawn pending) {
+        if (playerCount < 0) {
+            List<Vector3d> players = world.getPlayerPositions();
+            if (playerXs.length < players.size()) {
+                playerXs = Arrays.copyOf(playerXs, players.size());
+                playerZs = Arrays.copyOf(playerZs, players.size());
+            }
+
+            playerCount = 0;
+            for (Vector3d position : players) {
+                playerXs[playerCount] = position.x;
+                playerZs[playerCount] = position.z;
+                playerCount++;
+            }
+        }
+
+        Vector3d position = pending.citizen.getPosition();
+        double closest = Double.MAX_VALUE;
+
+        for (int i = 0; i < playerCount; i++) {
+            double dx = playerXs[i] - position.x;
+            double dz = playerZs[i] - position.z;
+            closest = Math.min(closest, dx * dx + dz * dz);
+        }
+
+        return closest;
+    }
+
+    // Takes the entry out of the backlog unless it was replaced or cancelled meanwhile. If its chunk unloaded again it
+    // goes back to waiting for the chunk's next preload
+    private synchronized boolean claim(@Nonnull PendingSpawn pending) {
+        if (byKey.get(pending.key) != pending || !pending.ready) {
+            return false;
+        }
+
+        pending.ready = false;
+        readyCount--;
+
+        if (!world.isChunkLoaded(pending.chunkIndex)) {
+            pending.deadline = System.currentTimeMillis() + DEFAULT_TIMEOUT_MS;
+            park(pending);
+            nextExpiry = Math.min(nextExpiry, pending.deadline);
+            return false;
+        }
+
+        byKey.remove(pending.key);
+        return true;
+    }
+
+    private void run(@Nonnull Runnable action, @Nonnull String key) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            getLogger().atWarning().log("Pending citizen spawn " + key + " failed: " + e.getMessage());
+        }
+    }
+
+    private void park(@Nonnull PendingSpawn pending) {
+        List<PendingSpawn> entries = byChunk.get(pending.chunkIndex);
+        if (entries == null) {
+            entries = new ArrayList<>(2);
+            byChunk.put(pending.chunkIndex, entries);
+        }
+
+        entries.add(pending);
+    }
+
+    private void unlink(@Nullable PendingSpawn pending) {
+        if (pending == null) {
+            return;
+        }
+
+        if (pending.ready) {
+            pending.ready = false;
+            readyCount--;
+            return;
+        }
+
+        List<PendingSpawn> entries = byChunk.get(pending.chunkIndex);
+        if (entries != null && entries.remove(pending) && entries.isEmpty()) {
+            byChunk.remove(pending.chunkIndex);
+            loading.remove(pending.chunkIndex);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.electro.hycitizens.managers;
+
+import com.hypixel.hytale.math.util.ChunkUtil;
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.server.core.universe.PlayerRef;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+// Uniform grid of player positions for one world, rebuilt once per tick and only used on that world's thread
+public class PlayerSpatialGrid {
+    private static final int CELL_SHIFT = 4;
+
+    private final Long2ObjectOpenHashMap<Cell> cells = new Long2ObjectOpenHashMap<>();
+    private final List<Cell> activeCells = new ArrayList<>();
+    private int playerCount;
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(@Nonnull PlayerRef playerRef, double distanceSq);
+    }
+
+    private static final class Cell {
+        private PlayerRef[] players = new PlayerRef[4];
+        private double[] xs = new double[4];
+        private double[] zs = new double[4];
+        private int size;
+
+        private void add(@Nonnull PlayerRef playerRef, double x, double z) {
+            if (size == players.length) {
+                int capacity = size * 2;
+                players = Arrays.copyOf(players, capacity);
+                xs = Arrays.copyOf(xs, capacity);
+                zs = Arrays.copyOf(zs, capacity);
+            }
+
+            players[size] = playerRef;
+            xs[size] = x;
+            zs[size] = z;
+            size++;
+        }
+    }
+
+    public void rebuild(@Nonnull Collection<PlayerRef> players) {
+        clear();
+
+        // Drop cells players have left behind so the map does not grow with every cell ever visited
+        if (cells.size() > Math.max(64, players.size() * 4)) {
+            cells.clear();
+        }
+
+        for (PlayerRef playerRef : players) {
+            Vector3d position = playerRef.getTransform().getPosition();
+            double x = position.x;
+            double z = position.z;
+
+            long key = ChunkUtil.indexChunk(cellOf(x), cellOf(z));
+            Cell cell = cells.get(key);
+            if (cell == null) {
+                cell = new Cell();
+                cells.put(key, cell);
+            }
+
+            if (cell.size == 0) {
+                activeCells.add(cell);
+            }
+
+            cell.add(playerRef, x, z);
+            playerCount++;
+        }
+    }
+
+    public void clear() {
+        for (Cell cell : activeCells) {
+            Arrays.fill(cell.players, 0, cell.size, null);
+            cell.size = 0;
+        }
+
+        activeCells.clear();
+        playerCount = 0;
+    }
+
+    public boolean isEmpty() {
+        return playerCount == 0;
+    }
+
+    // Visits every player within range on the horizontal plane, passing the squared horizontal distance
+    public void forEachWithin(double x, double z, double range, @Nonnull Visitor visitor) {
+        if (playerCount == 0) {
+            return;
+        }
+
+        double rangeSq = range * range;
+
+        int minCellX = cellOf(x - range);
+        int maxCellX = cellOf(x + range);
+        int minCellZ = cellOf(z - range);
+        int maxCellZ = cellOf(z + range);
+
+        for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+            for (int cellZ = minCellZ; cellZ <= maxCellZ; cellZ++) {
+                Cell cell = cells.get(ChunkUtil.indexChunk(cellX, cellZ));
+                if (cell == null || cell.size == 0) {
+                    continue;
+                }
+
+                for (int i = 0; i < cell.size; i++) {
+                    double dx = cell.xs[i] - x;
+                    double dz = cell.zs[i] - z;
+                    double distSq = dx * dx + dz * dz;
+
+                    if (distSq <= rangeSq) {
+                        visitor.visit(cell.players[i], distSq);
+                    }
+                }
+            }
+        }
+    }
+
+    public boolean anyWithin(double x, double z, double range) {
+        if (playerCount == 0) {
+            return false;
+        }
+
+        double rangeSq = range * range;
+
+        for (int cellX = cellOf(x - range); cellX <= cellOf(x + range); cellX++) {
+            for (int cellZ = cellOf(z - range); cellZ <= cellOf(z + range); cellZ++) {
+                Cell cell = cells.get(ChunkUtil.indexChunk(cellX, cellZ));
+                if (cell == null) {
+                    continue;
+                }
+
+                for (int i = 0; i < cell.size; i++) {
+                    double dx = cell.xs[i] - x;
+                    double dz = cell.zs[i] - z;
+                    if (dx * dx + dz * dz <= rangeSq) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static int cellOf(double coordinate) {
+        return ((int) Math.floor(coordinate)) >> CELL_SHIFT;
+    }
+}
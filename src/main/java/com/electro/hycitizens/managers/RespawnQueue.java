@@ -0,0 +1,87 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import com.electro.hycitizens.util.TimingWheel;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Death respawns for one world. Citizens wait on a timing wheel by their persisted respawn time and the world tick
+// hands due ones to the spawn queue, at most the pipeline's per-tick limit at a time
+public class RespawnQueue implements CitizenTickEngine.Handler {
+    private static final long WHEEL_TICK_MS = 100;
+    private static final int WHEEL_SLOTS = 1024;
+
+    private final CitizensManager manager;
+    private final SpawnPipeline pipeline;
+    private final Queue<CitizenData> incoming = new ConcurrentLinkedQueue<>();
+    private final Queue<CitizenData> cancelled = new ConcurrentLinkedQueue<>();
+    private final TimingWheel<String, CitizenData> wheel = new TimingWheel<>(WHEEL_TICK_MS, WHEEL_SLOTS);
+    private final ArrayDeque<CitizenData> due = new ArrayDeque<>();
+    private final List<CitizenData> changed = new ArrayList<>();
+
+    public RespawnQueue(@Nonnull CitizensManager manager, @Nonnull SpawnPipeline pipeline) {
+        this.manager = manager;
+        this.pipeline = pipeline;
+    }
+
+    // Safe from any thread. The citizen's respawn time must already be set. A later schedule for the same citizen
+    // replaces this one
+    public void schedule(@Nonnull CitizenData citizen) {
+        incoming.add(citizen);
+    }
+
+    // Safe from any thread. The citizen's respawn time must already be cleared. A schedule made after it wins, since
+    // cancellations are applied last and skip citizens that have a respawn time again
+    public void cancel(@Nonnull CitizenData citizen) {
+        cancelled.add(citizen);
+    }
+
+    // Respawns waiting on the wheel or for budget. Only meaningful on the world thread
+    public int size() {
+        return wheel.size() + due.size();
+    }
+
+    @Override
+    public void beginTick(long now) {
+        CitizenData citizen;
+        while ((citizen = incoming.poll()) != null) {
+            wheel.schedule(citizen.getId(), citizen, citizen.getRespawnAt());
+            changed.add(citizen);
+        }
+
+        while ((citizen = cancelled.poll()) != null) {
+            if (citizen.getRespawnAt() > 0) {
+                continue;
+            }
+
+            wheel.cancel(citizen.getId());
+            due.remove(citizen);
+            // Clears the saved respawn time
+            changed.add(citizen);
+        }
+
+        wheel.advance(now, (citizenId, dueCitizen) -> due.add(dueCitizen));
+
+        int budget = pipeline.getMaxPerTick();
+        while (budget > 0 && !due.isEmpty()) {
+            CitizenData dueCitizen = due.poll();
+            if (manager.respawnDeadCitizen(dueCitizen)) {
+                changed.add(dueCitizen);
+                budget--;
+            }
+        }
+
+        if (!changed.isEmpty()) {
+            try {
+                manager.saveRespawnTimes(changed);
+            } finally {
+                changed.clear();
+            }
+        }
+    }
+}
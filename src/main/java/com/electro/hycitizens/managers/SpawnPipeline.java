@@ -0,0 +1,93 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.util.ConfigManager;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-tick limits for spawn work and the counters describing how it is keeping up. Shared by every world's spawn queue
+public class SpawnPipeline {
+    public static final int DEFAULT_MAX_PER_TICK = 8;
+    public static final float DEFAULT_MAX_MS_PER_TICK = 4.0f;
+
+    private volatile int maxPerTick = DEFAULT_MAX_PER_TICK;
+    private volatile long maxNanosPerTick = toNanos(DEFAULT_MAX_MS_PER_TICK);
+
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder spawned = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder deferredTicks = new LongAdder();
+    private final LongAdder spawnNanos = new LongAdder();
+    private volatile long countingSince = System.currentTimeMillis();
+
+    public void configure(@Nonnull ConfigManager config) {
+        maxPerTick = Math.max(1, config.getInt("spawn-pipeline.max-per-tick", DEFAULT_MAX_PER_TICK));
+        maxNanosPerTick = toNanos(Math.max(0.1f, config.getFloat("spawn-pipeline.max-ms-per-tick", DEFAULT_MAX_MS_PER_TICK)));
+    }
+
+    public int getMaxPerTick() {
+        return maxPerTick;
+    }
+
+    public long getMaxNanosPerTick() {
+        return maxNanosPerTick;
+    }
+
+    public void recordQueued() {
+        queued.increment();
+    }
+
+    public void recordSpawned(long nanos) {
+        spawned.increment();
+        spawnNanos.add(nanos);
+    }
+
+    public void recordExpired() {
+        expired.increment();
+    }
+
+    // A tick ran out of budget with spawns still waiting
+    public void recordDeferred() {
+        deferredTicks.increment();
+    }
+
+    public long getQueued() {
+        return queued.sum();
+    }
+
+    public long getSpawned() {
+        return spawned.sum();
+    }
+
+    public long getExpired() {
+        return expired.sum();
+    }
+
+    public long getDeferredTicks() {
+        return deferredTicks.sum();
+    }
+
+    public double getAverageSpawnMillis() {
+        long count = spawned.sum();
+        return count == 0 ? 0 : spawnNanos.sum() / (double) count / 1_000_000.0;
+    }
+
+    public double getSpawnsPerSecond() {
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - countingSince);
+        return spawned.sum() * 1000.0 / elapsedMs;
+    }
+
+    public void reset() {
+        queued.reset();
+        spawned.reset();
+        expired.reset();
+        deferredTicks.reset();
+        spawnNanos.reset();
+        countingSince = System.currentTimeMillis();
+    }
+
+    private static long toNanos(float millis) {
+        return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
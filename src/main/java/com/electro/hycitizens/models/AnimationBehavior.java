@@ -1,9 +1,11 @@
 package com.electro.hycitizens.models;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class AnimationBehavior {
     private String type;
+    private AnimationTrigger trigger;
     private String animationName;
     private int animationSlot;
     private float intervalSeconds;
@@ -13,7 +15,7 @@ public class AnimationBehavior {
     private float stopTimeSeconds;
 
     public AnimationBehavior(@Nonnull String type, @Nonnull String animationName, int animationSlot, float intervalSeconds, float proximityRange) {
-        this.type = type;
+        setType(type);
         this.animationName = animationName;
         this.animationSlot = animationSlot;
         this.intervalSeconds = intervalSeconds;
@@ -25,7 +27,7 @@ public class AnimationBehavior {
 
     public AnimationBehavior(@Nonnull String type, @Nonnull String animationName, int animationSlot, float intervalSeconds,
                              float proximityRange, boolean stopAfterTime, @Nonnull String stopAnimationName, float stopTimeSeconds) {
-        this.type = type;
+        setType(type);
         this.animationName = animationName;
         this.animationSlot = animationSlot;
         this.intervalSeconds = intervalSeconds;
@@ -36,7 +38,7 @@ public class AnimationBehavior {
     }
 
     public AnimationBehavior() {
-        this.type = "DEFAULT";
+        setType("DEFAULT");
         this.animationName = "";
         this.animationSlot = 0;
         this.intervalSeconds = 5.0f;
@@ -53,6 +55,12 @@ public class AnimationBehavior {
 
     public void setType(@Nonnull String type) {
         this.type = type;
+        this.trigger = AnimationTrigger.fromString(type);
+    }
+
+    @Nullable
+    public AnimationTrigger getTrigger() {
+        return trigger;
     }
 
     @Nonnull
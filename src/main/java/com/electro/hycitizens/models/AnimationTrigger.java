@@ -0,0 +1,33 @@
+package com.electro.hycitizens.models;
+
+import javax.annotation.Nullable;
+
+public enum AnimationTrigger {
+    DEFAULT,
+    TIMED,
+    ON_INTERACT,
+    ON_ATTACK,
+    ON_PROXIMITY_ENTER,
+    ON_PROXIMITY_EXIT;
+
+    private static final AnimationTrigger[] VALUES = values();
+
+    public boolean isProximity() {
+        return this == ON_PROXIMITY_ENTER || this == ON_PROXIMITY_EXIT;
+    }
+
+    // Parses the persisted type string. Unknown types return null so they are kept but never dispatched
+    @Nullable
+    public static AnimationTrigger fromString(@Nullable String type) {
+        if (type == null) {
+            return null;
+        }
+
+        for (AnimationTrigger trigger : VALUES) {
+            if (trigger.name().equals(type)) {
+                return trigger;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,87 @@
+package com.electro.hycitizens.models;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.UUID;
+
+// The citizen settings its spawned entities were last built or patched from. Edits mutate CitizenData in place, so this
+// is what an update compares against to find out which components actually need to change
+public record AppliedCitizenState(
+        @Nonnull UUID worldUUID,
+        @Nonnull String modelId,
+        boolean playerModel,
+        @Nonnull String skinUsername,
+        boolean useLiveSkin,
+        boolean staticMode,
+        boolean hideNpc,
+        float scale,
+        @Nonnull Vector3d position,
+        @Nonnull Vector3f rotation,
+        @Nullable String hand,
+        @Nullable String offHand,
+        @Nullable String helmet,
+        @Nullable String chest,
+        @Nullable String gloves,
+        @Nullable String leggings,
+        @Nonnull String name,
+        boolean hideNametag,
+        float nametagOffset,
+        boolean fKeyInteraction,
+        @Nullable String roleContent
+) {
+    @Nonnull
+    public static AppliedCitizenState capture(@Nonnull CitizenData citizen, @Nullable String roleContent) {
+        return new AppliedCitizenState(
+                citizen.getWorldUUID(),
+                citizen.getModelId(),
+                citizen.isPlayerModel(),
+                citizen.getSkinUsername(),
+                citizen.isUseLiveSkin(),
+                citizen.isStaticMode(),
+                citizen.isHideNpc(),
+                citizen.getScale(),
+                new Vector3d(citizen.getPosition()),
+                new Vector3f(citizen.getRotation()),
+                citizen.getNpcHand(),
+                citizen.getNpcOffHand(),
+                citizen.getNpcHelmet(),
+                citizen.getNpcChest(),
+                citizen.getNpcGloves(),
+                citizen.getNpcLeggings(),
+                citizen.getName(),
+                citizen.isHideNametag(),
+                citizen.getNametagOffset(),
+                citizen.getFKeyInteractionEnabled(),
+                roleContent
+        );
+    }
+
+    // Changes that need a different kind of entity, which only a respawn can give
+    public boolean sameEntityKind(@Nonnull AppliedCitizenState other) {
+        return worldUUID.equals(other.worldUUID) && playerModel == other.playerModel && staticMode == other.staticMode
+                && hideNpc == other.hideNpc && skinUsername.equals(other.skinUsername) && useLiveSkin == other.useLiveSkin;
+    }
+
+    public boolean sameModel(@Nonnull AppliedCitizenState other) {
+        return modelId.equals(other.modelId) && scale == other.scale;
+    }
+
+    public boolean sameTransform(@Nonnull AppliedCitizenState other) {
+        return position.equals(other.position) && rotation.equals(other.rotation);
+    }
+
+    public boolean sameItems(@Nonnull AppliedCitizenState other) {
+        return Objects.equals(hand, other.hand) && Objects.equals(offHand, other.offHand)
+                && Objects.equals(helmet, other.helmet) && Objects.equals(chest, other.chest)
+                && Objects.equals(gloves, other.gloves) && Objects.equals(leggings, other.leggings);
+    }
+
+    public boolean sameNametag(@Nonnull AppliedCitizenState other) {
+        return name.equals(other.name) && hideNametag == other.hideNametag && nametagOffset == other.nametagOffset
+                && scale == other.scale;
+    }
+}
@@ -1,10 +1,10 @@
 package com.electro.hycitizens.models;
 
+import com.electro.hycitizens.managers.LookAtLod;
 import com.electro.hycitizens.roles.RoleGenerator;
 import com.hypixel.hytale.component.Ref;
 import com.hypixel.hytale.math.vector.Vector3d;
 import com.hypixel.hytale.math.vector.Vector3f;
-import com.hypixel.hytale.protocol.Direction;
 import com.hypixel.hytale.protocol.PlayerSkin;
 import com.hypixel.hytale.server.core.universe.world.storage.EntityStore;
 
@@ -12,9 +12,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.hypixel.hytale.logger.HytaleLogger.getLogger;
 
@@ -32,10 +31,23 @@ public class CitizenData {
     private UUID spawnedUUID;
     private List<UUID> hologramLineUuids = new ArrayList<>();
     private Ref<EntityStore> npcRef;
-    public final Map<UUID, Direction> lastLookDirections = new ConcurrentHashMap<>();
+    private transient volatile List<Ref<EntityStore>> hologramLineRefs = new ArrayList<>();
+    private transient volatile Vector3d lastNametagAnchor;
+    private transient volatile int nametagLayoutLines = -1;
+    private transient volatile List<String> nametagLines;
+    private transient double nametagYOffset;
+    private transient volatile int observerIndex = -1;
+    private transient volatile boolean aiDormant;
+    private transient long lastAiObservedAt;
+    private transient volatile AppliedCitizenState appliedState;
     private boolean rotateTowardsPlayer;
+    private float lookAtRange = 25.0f;
+    private float lookAtNearRange = 10.0f;
+    private float lookAtMidThreshold = LookAtLod.DEFAULT_MID_THRESHOLD;
+    private int lookAtMidTickInterval = LookAtLod.DEFAULT_MID_TICK_INTERVAL;
     private boolean hideNametag = false;
     private boolean hideNpc = false;
+    private boolean staticMode = false;
     private float nametagOffset;
     private boolean fKeyInteractionEnabled;
 
@@ -53,16 +65,14 @@ public class CitizenData {
     private String skinUsername;
     private PlayerSkin cachedSkin;
     private long lastSkinUpdate;
-    private transient long createdAt;
 
     // Behavior fields
     private List<AnimationBehavior> animationBehaviors = new ArrayList<>();
+    private transient AnimationBehavior[][] behaviorsByTrigger = indexBehaviors(List.of());
+    private transient AnimationBehavior[] proximityBehaviors = new AnimationBehavior[0];
+    private transient float maxProximityRange;
     private MovementBehavior movementBehavior = new MovementBehavior();
     private MessagesConfig messagesConfig = new MessagesConfig();
-    private transient Map<UUID, Integer> sequentialMessageIndex = new ConcurrentHashMap<>();
-    private transient Map<UUID, Boolean> playersInProximity = new ConcurrentHashMap<>();
-    private transient Map<String, Long> lastTimedAnimationPlay = new ConcurrentHashMap<>();
-    private transient Map<String, java.util.concurrent.ScheduledFuture<?>> animationStopTasks = new ConcurrentHashMap<>();
 
     // Attitude and damage fields
     private String attitude = "PASSIVE";
@@ -71,8 +81,8 @@ public class CitizenData {
     // Respawn fields
     private boolean respawnOnDeath = true;
     private float respawnDelaySeconds = 5.0f;
-    private transient boolean awaitingRespawn = false;
-    private transient long lastDeathTime = 0;
+    private volatile long respawnAt;
+    private final transient AtomicReference<CitizenLifecycle> lifecycle = new AtomicReference<>(CitizenLifecycle.UNLOADED);
 
     // Group field
     private String group = "";
@@ -138,7 +148,6 @@ public class CitizenData {
         this.skinUsername = skinUsername != null ? skinUsername : "";
         this.cachedSkin = cachedSkin;
         this.lastSkinUpdate = lastSkinUpdate;
-        this.createdAt = 0;
         this.npcRef = null;
         this.rotateTowardsPlayer = rotateTowardsPlayer;
 
@@ -167,6 +176,30 @@ public class CitizenData {
 
     public void setName(@Nonnull String name) {
         this.name = name;
+        this.nametagLines = null;
+    }
+
+    // Non-empty, trimmed lines of the name, parsed once per rename. A literal "\\n" in the name also starts a new line
+    @Nonnull
+    public List<String> getNametagLines() {
+        List<String> lines = nametagLines;
+        if (lines != null) {
+            return lines;
+        }
+
+        List<String> parsed = new ArrayList<>();
+        if (name != null) {
+            for (String line : name.replace("\\n", "\n").split("\\r?\\n")) {
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty()) {
+                    parsed.add(trimmed);
+                }
+            }
+        }
+
+        lines = List.copyOf(parsed);
+        nametagLines = lines;
+        return lines;
     }
 
     @Nonnull
@@ -211,6 +244,7 @@ public class CitizenData {
 
     public void setScale(float scale) {
         this.scale = scale;
+        this.nametagLayoutLines = -1;
     }
 
     @Nonnull
@@ -254,6 +288,47 @@ public class CitizenData {
 
     public void setHologramLineUuids(@Nullable List<UUID> hologramLineUuids) {
         this.hologramLineUuids = hologramLineUuids;
+        invalidateHologramLineRefs();
+    }
+
+    // Resolved line entities, kept parallel to hologramLineUuids and only touched on the world thread
+    @Nonnull
+    public List<Ref<EntityStore>> getHologramLineRefs() {
+        return hologramLineRefs;
+    }
+
+    public void invalidateHologramLineRefs() {
+        // Swap rather than clear so a world thread iterating the old list is never disturbed
+        hologramLineRefs = new ArrayList<>();
+        lastNametagAnchor = null;
+    }
+
+    @Nullable
+    public Vector3d getLastNametagAnchor() {
+        return lastNametagAnchor;
+    }
+
+    public void setLastNametagAnchor(@Nullable Vector3d lastNametagAnchor) {
+        this.lastNametagAnchor = lastNametagAnchor;
+    }
+
+    // Recomputes the nametag offset only when scale, nametag offset or line count changed. Returns true if it was rebuilt
+    public boolean refreshNametagLayout(int lineCount) {
+        if (nametagLayoutLines == lineCount) {
+            return false;
+        }
+
+        double layoutScale = Math.max(0.01, scale + nametagOffset);
+        double baseOffset = 1.65;
+        double extraPerScale = 0.40;
+
+        nametagYOffset = baseOffset * layoutScale + (layoutScale - 1.0) * extraPerScale;
+        nametagLayoutLines = lineCount;
+        return true;
+    }
+
+    public double getNametagYOffset() {
+        return nametagYOffset;
     }
 
     public boolean requiresPermission() {
@@ -272,6 +347,38 @@ public class CitizenData {
         this.rotateTowardsPlayer = rotateTowardsPlayer;
     }
 
+    public float getLookAtRange() {
+        return lookAtRange;
+    }
+
+    public void setLookAtRange(float lookAtRange) {
+        this.lookAtRange = Math.max(0, lookAtRange);
+    }
+
+    public float getLookAtNearRange() {
+        return lookAtNearRange;
+    }
+
+    public void setLookAtNearRange(float lookAtNearRange) {
+        this.lookAtNearRange = Math.max(0, lookAtNearRange);
+    }
+
+    public float getLookAtMidThreshold() {
+        return lookAtMidThreshold;
+    }
+
+    public void setLookAtMidThreshold(float lookAtMidThreshold) {
+        this.lookAtMidThreshold = Math.max(0, lookAtMidThreshold);
+    }
+
+    public int getLookAtMidTickInterval() {
+        return lookAtMidTickInterval;
+    }
+
+    public void setLookAtMidTickInterval(int lookAtMidTickInterval) {
+        this.lookAtMidTickInterval = Math.max(1, lookAtMidTickInterval);
+    }
+
     public boolean isPlayerModel() {
         return isPlayerModel;
     }
@@ -297,6 +404,41 @@ public class CitizenData {
         this.skinUsername = skinUsername != null ? skinUsername : "";
     }
 
+    // Runtime slot in the observer state store, -1 until first used
+    public int getObserverIndex() {
+        return observerIndex;
+    }
+
+    public void setObserverIndex(int observerIndex) {
+        this.observerIndex = observerIndex;
+    }
+
+    // True while the NPC runs the cheap dormant role instead of its generated one
+    public boolean isAiDormant() {
+        return aiDormant;
+    }
+
+    public void setAiDormant(boolean aiDormant) {
+        this.aiDormant = aiDormant;
+    }
+
+    @Nullable
+    public AppliedCitizenState getAppliedState() {
+        return appliedState;
+    }
+
+    public void setAppliedState(@Nullable AppliedCitizenState appliedState) {
+        this.appliedState = appliedState;
+    }
+
+    public long getLastAiObservedAt() {
+        return lastAiObservedAt;
+    }
+
+    public void setLastAiObservedAt(long lastAiObservedAt) {
+        this.lastAiObservedAt = lastAiObservedAt;
+    }
+
     public Ref<EntityStore> getNpcRef() {
         return npcRef;
     }
@@ -369,8 +511,18 @@ public class CitizenData {
         return hideNpc;
     }
 
+    // Spawn as a bare model without NPC AI. Player models always spawn as NPCs
+    public void setStaticMode(boolean staticMode) {
+        this.staticMode = staticMode;
+    }
+
+    public boolean isStaticMode() {
+        return staticMode;
+    }
+
     public void setNametagOffset(float offset) {
         this.nametagOffset = offset;
+        this.nametagLayoutLines = -1;
     }
 
     public float getNametagOffset() {
@@ -394,14 +546,6 @@ public class CitizenData {
         this.lastSkinUpdate = lastSkinUpdate;
     }
 
-    public long getCreatedAt() {
-        return createdAt;
-    }
-
-    public void setCreatedAt(long createdAt) {
-        this.createdAt = createdAt;
-    }
-
     public void setFKeyInteractionEnabled(boolean enabled) {
         this.fKeyInteractionEnabled = enabled;
     }
@@ -416,45 +560,79 @@ public class CitizenData {
     }
 
     public void setAnimationBehaviors(@Nonnull List<AnimationBehavior> animationBehaviors) {
-        this.animationBehaviors = new ArrayList<>(animationBehaviors);
+        List<AnimationBehavior> copy = new ArrayList<>(animationBehaviors);
+
+        float maxRange = 0;
+        List<AnimationBehavior> proximity = new ArrayList<>();
+        for (AnimationBehavior ab : copy) {
+            if (ab.getTrigger() != null && ab.getTrigger().isProximity()) {
+                proximity.add(ab);
+                maxRange = Math.max(maxRange, ab.getProximityRange());
+            }
+        }
+
+        this.behaviorsByTrigger = indexBehaviors(copy);
+        this.proximityBehaviors = proximity.toArray(new AnimationBehavior[0]);
+        this.maxProximityRange = maxRange;
+        this.animationBehaviors = copy;
     }
 
+    // Precomputed subset for one trigger. The returned array is shared and must not be modified
     @Nonnull
-    public MovementBehavior getMovementBehavior() {
-        return movementBehavior;
+    public AnimationBehavior[] getAnimationBehaviors(@Nonnull AnimationTrigger trigger) {
+        return behaviorsByTrigger[trigger.ordinal()];
     }
 
-    public void setMovementBehavior(@Nonnull MovementBehavior movementBehavior) {
-        this.movementBehavior = movementBehavior;
+    @Nullable
+    public AnimationBehavior getAnimationBehaviorAt(int index) {
+        List<AnimationBehavior> behaviors = animationBehaviors;
+        return index >= 0 && index < behaviors.size() ? behaviors.get(index) : null;
     }
 
+    // Enter and exit behaviors together, in their configured order
     @Nonnull
-    public MessagesConfig getMessagesConfig() {
-        return messagesConfig;
+    public AnimationBehavior[] getProximityBehaviors() {
+        return proximityBehaviors;
     }
 
-    public void setMessagesConfig(@Nonnull MessagesConfig messagesConfig) {
-        this.messagesConfig = messagesConfig;
+    public float getMaxProximityRange() {
+        return maxProximityRange;
     }
 
     @Nonnull
-    public Map<UUID, Integer> getSequentialMessageIndex() {
-        return sequentialMessageIndex;
+    private static AnimationBehavior[][] indexBehaviors(@Nonnull List<AnimationBehavior> behaviors) {
+        AnimationTrigger[] triggers = AnimationTrigger.values();
+        AnimationBehavior[][] byTrigger = new AnimationBehavior[triggers.length][];
+
+        for (AnimationTrigger trigger : triggers) {
+            List<AnimationBehavior> matching = new ArrayList<>();
+            for (AnimationBehavior ab : behaviors) {
+                if (ab.getTrigger() == trigger) {
+                    matching.add(ab);
+                }
+            }
+            byTrigger[trigger.ordinal()] = matching.toArray(new AnimationBehavior[0]);
+        }
+
+        return byTrigger;
     }
 
     @Nonnull
-    public Map<UUID, Boolean> getPlayersInProximity() {
-        return playersInProximity;
+    public MovementBehavior getMovementBehavior() {
+        return movementBehavior;
     }
 
-    @Nonnull
-    public Map<String, Long> getLastTimedAnimationPlay() {
-        return lastTimedAnimationPlay;
+    public void setMovementBehavior(@Nonnull MovementBehavior movementBehavior) {
+        this.movementBehavior = movementBehavior;
     }
 
     @Nonnull
-    public Map<String, java.util.concurrent.ScheduledFuture<?>> getAnimationStopTasks() {
-        return animationStopTasks;
+    public MessagesConfig getMessagesConfig() {
+        return messagesConfig;
+    }
+
+    public void setMessagesConfig(@Nonnull MessagesConfig messagesConfig) {
+        this.messagesConfig = messagesConfig;
     }
 
     @Nonnull
@@ -491,19 +669,29 @@ public class CitizenData {
     }
 
     public boolean isAwaitingRespawn() {
-        return awaitingRespawn;
+        return lifecycle.get() == CitizenLifecycle.DEAD_AWAITING_RESPAWN;
+    }
+
+    @Nonnull
+    public CitizenLifecycle getLifecycle() {
+        return lifecycle.get();
+    }
+
+    public void setLifecycle(@Nonnull CitizenLifecycle state) {
+        lifecycle.set(state);
     }
 
-    public void setAwaitingRespawn(boolean awaitingRespawn) {
-        this.awaitingRespawn = awaitingRespawn;
+    public boolean compareAndSetLifecycle(@Nonnull CitizenLifecycle expected, @Nonnull CitizenLifecycle state) {
+        return lifecycle.compareAndSet(expected, state);
     }
 
-    public long getLastDeathTime() {
-        return lastDeathTime;
+    // When a dead citizen is due to respawn, or 0 if it is not waiting on one
+    public long getRespawnAt() {
+        return respawnAt;
     }
 
-    public void setLastDeathTime(long lastDeathTime) {
-        this.lastDeathTime = lastDeathTime;
+    public void setRespawnAt(long respawnAt) {
+        this.respawnAt = respawnAt;
     }
 
     @Nonnull
@@ -0,0 +1,18 @@
+package com.electro.hycitizens.models;
+
+// Runtime spawn state of a citizen. Transitions are made with compare-and-set on CitizenData so that overlapping
+// requests (repeated chunk preloads, deaths, respawns) collapse into a single piece of work
+public enum CitizenLifecycle {
+    // No entity is known to be in the world
+    UNLOADED,
+    // Spawn or restore work is queued and waiting on the chunk or the spawn budget
+    PENDING,
+    // Spawn work is running on the world thread
+    SPAWNING,
+    // The entity is in the world, or the citizen has been restored from its chunk
+    SPAWNED,
+    // Died and a respawn is scheduled
+    DEAD_AWAITING_RESPAWN,
+    // Being removed from the world
+    DESPAWNING
+}
@@ -1,16 +1,18 @@
 package com.electro.hycitizens.models;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class MovementBehavior {
     private String type;
+    private MovementType movementType;
     private float walkSpeed;
     private float wanderRadius;
     private float wanderWidth;
     private float wanderDepth;
 
     public MovementBehavior(@Nonnull String type, float walkSpeed, float wanderRadius, float wanderWidth, float wanderDepth) {
-        this.type = type;
+        setType(type);
         this.walkSpeed = walkSpeed;
         this.wanderRadius = wanderRadius;
         this.wanderWidth = wanderWidth;
@@ -18,7 +20,7 @@ public class MovementBehavior {
     }
 
     public MovementBehavior() {
-        this.type = "IDLE";
+        setType("IDLE");
         this.walkSpeed = 1.0f;
         this.wanderRadius = 10.0f;
         this.wanderWidth = 10.0f;
@@ -32,6 +34,16 @@ public class MovementBehavior {
 
     public void setType(@Nonnull String type) {
         this.type = type;
+        this.movementType = MovementType.fromString(type);
+    }
+
+    @Nullable
+    public MovementType getMovementType() {
+        return movementType;
+    }
+
+    public boolean isIdle() {
+        return movementType == MovementType.IDLE;
     }
 
     public float getWalkSpeed() {
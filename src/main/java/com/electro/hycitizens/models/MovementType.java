@@ -0,0 +1,27 @@
+package com.electro.hycitizens.models;
+
+import javax.annotation.Nullable;
+
+public enum MovementType {
+    IDLE,
+    WANDER,
+    WANDER_CIRCLE,
+    WANDER_RECT;
+
+    private static final MovementType[] VALUES = values();
+
+    // Parses the persisted type string. Unknown types return null and are treated as non-idle, as before
+    @Nullable
+    public static MovementType fromString(@Nullable String type) {
+        if (type == null) {
+            return null;
+        }
+
+        for (MovementType movementType : VALUES) {
+            if (movementType.name().equals(type)) {
+                return movementType;
+            }
+        }
+        return null;
+    }
+}
@@ -15,12 +15,16 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.hypixel.hytale.logger.HytaleLogger.getLogger;
 
 public class RoleGenerator {
     private final File generatedRolesDir;
     private final Gson gson;
+    // Last content written for each role, so unchanged roles skip the file read and edits can tell if the role changed
+    private final Map<String, String> writtenContent = new ConcurrentHashMap<>();
 
     public static final String[] ATTACK_INTERACTIONS = {
             "Root_NPC_Attack_Melee",
@@ -100,8 +104,7 @@ public class RoleGenerator {
 
     @Nonnull
     public String generateRole(@Nonnull CitizenData citizen) {
-        String moveType = citizen.getMovementBehavior().getType();
-        boolean isIdle = "IDLE".equals(moveType);
+        boolean isIdle = citizen.getMovementBehavior().isIdle();
 
         String roleName = getRoleName(citizen);
 
@@ -123,10 +126,10 @@ public class RoleGenerator {
 
     @Nonnull
     public String getFallbackRoleName(@Nonnull CitizenData citizen) {
-        String moveType = citizen.getMovementBehavior().getType();
+        MovementType moveType = citizen.getMovementBehavior().getMovementType();
         boolean interactable = citizen.getFKeyInteractionEnabled();
         String attitude = citizen.getAttitude();
-        boolean isWander = "WANDER".equals(moveType) || "WANDER_CIRCLE".equals(moveType) || "WANDER_RECT".equals(moveType);
+        boolean isWander = moveType == MovementType.WANDER || moveType == MovementType.WANDER_CIRCLE || moveType == MovementType.WANDER_RECT;
 
         if (isWander) {
             int radius = getEffectiveRadius(citizen);
@@ -142,6 +145,12 @@ public class RoleGenerator {
         }
     }
 
+    // Static idle role swapped in while no player is near enough to see the citizen's AI
+    @Nonnull
+    public String getDormantRoleName(@Nonnull CitizenData citizen) {
+        return citizen.getFKeyInteractionEnabled() ? "Citizen_Interactable_Role" : "Citizen_Role";
+    }
+
     private int getEffectiveRadius(@Nonnull CitizenData citizen) {
         float radius = citizen.getMovementBehavior().getWanderRadius();
         if (radius < 1) return 0;
@@ -412,12 +421,17 @@ public class RoleGenerator {
         File roleFile = new File(generatedRolesDir, roleName + ".json");
         String newContent = gson.toJson(roleJson);
 
+        if (newContent.equals(writtenContent.get(roleName)) && roleFile.exists()) {
+            return;
+        }
+
         // Skip writing if the file content hasn't changed to avoid triggering
         // Hytale's hot-reload which resets NPC appearance (including skins)
         if (roleFile.exists()) {
             try {
                 String existingContent = Files.readString(roleFile.toPath());
                 if (existingContent.equals(newContent)) {
+                    writtenContent.put(roleName, newContent);
                     return;
                 }
             } catch (IOException ignored) {
@@ -426,6 +440,7 @@ public class RoleGenerator {
 
         try (FileWriter writer = new FileWriter(roleFile)) {
             writer.write(newContent);
+            writtenContent.put(roleName, newContent);
         } catch (IOException e) {
             getLogger().atSevere().log("Failed to write role file: " + roleName + " - " + e.getMessage());
         }
@@ -434,11 +449,18 @@ public class RoleGenerator {
     public void deleteRoleFile(@Nonnull String citizenId) {
         String roleName = "HyCitizens_" + citizenId + "_Role";
         File roleFile = new File(generatedRolesDir, roleName + ".json");
+        writtenContent.remove(roleName);
         if (roleFile.exists()) {
             roleFile.delete();
         }
     }
 
+    // Content of the citizen's generated role as last written, or null if it was not generated since startup
+    @Nullable
+    public String getWrittenRoleContent(@Nonnull CitizenData citizen) {
+        return writtenContent.get(getRoleName(citizen));
+    }
+
     public void regenerateAllRoles(@Nonnull Collection<CitizenData> citizens) {
         for (CitizenData citizen : citizens) {
             generateRole(citizen);
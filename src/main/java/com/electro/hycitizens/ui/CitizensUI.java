@@ -1311,9 +1311,14 @@ public class CitizensUI {
                 .setVariable("isPlayerModel", citizen.isPlayerModel())
                 .setVariable("useLiveSkin", citizen.isUseLiveSkin())
                 .setVariable("rotateTowardsPlayer", citizen.getRotateTowardsPlayer())
+                .setVariable("lookAtRange", citizen.getLookAtRange())
+                .setVariable("lookAtNearRange", citizen.getLookAtNearRange())
+                .setVariable("lookAtMidThreshold", citizen.getLookAtMidThreshold())
+                .setVariable("lookAtMidTickInterval", citizen.getLookAtMidTickInterval())
                 .setVariable("fKeyInteraction", citizen.getFKeyInteractionEnabled())
                 .setVariable("hideNametag", citizen.isHideNametag())
                 .setVariable("hideNpc", citizen.isHideNpc())
+                .setVariable("staticMode", citizen.isStaticMode())
                 .setVariable("groupOptions", groupOptionsHTML)
                 .setVariable("entityOptions", generateEntityDropdownOptions(citizen.getModelId()));
 
@@ -1380,6 +1385,18 @@ public class CitizensUI {
                                         <p class="checkbox-description">Hide the NPC entity</p>
                                     </div>
                                 </div>
+
+                                {{#if !isPlayerModel}}
+                                <div class="spacer-sm"></div>
+
+                                <div class="checkbox-row">
+                                    <input type="checkbox" id="static-mode-check" {{#if staticMode}}checked{{/if}} />
+                                    <div style="layout: top; flex-weight: 0; text-align: center;">
+                                        <p class="checkbox-label">Static Decoration</p>
+                                        <p class="checkbox-description">Spawn a lightweight model without AI. It cannot move, fight or take damage</p>
+                                    </div>
+                                </div>
+                                {{/if}}
                             </div>
 
                             <div class="spacer-md"></div>
@@ -1491,6 +1508,24 @@ public class CitizensUI {
                                         <p class="checkbox-description">The citizen will face players when they approach</p>
                                     </div>
                                 </div>
+                                <div class="spacer-xs"></div>
+                                <div class="form-row">
+                                    <div style="flex-weight: 1;">
+                                        {{@numberField:id=look-at-range,label=Look Range,value={{$lookAtRange}},placeholder=25,min=0,max=128,step=1,decimals=1,hint=Players beyond this are ignored}}
+                                    </div>
+                                    <div class="spacer-h-sm"></div>
+                                    <div style="flex-weight: 1;">
+                                        {{@numberField:id=look-at-near-range,label=Near Range,value={{$lookAtNearRange}},placeholder=10,min=0,max=128,step=1,decimals=1,hint=Updated every tick inside this}}
+                                    </div>
+                                    <div class="spacer-h-sm"></div>
+                                    <div style="flex-weight: 1;">
+                                        {{@numberField:id=look-at-mid-threshold,label=Far Threshold,value={{$lookAtMidThreshold}},placeholder=0.08,min=0,max=1,step=0.01,decimals=2,hint=Min turn before resending}}
+                                    </div>
+                                    <div class="spacer-h-sm"></div>
+                                    <div style="flex-weight: 1;">
+                                        {{@numberField:id=look-at-mid-tick-interval,label=Far Interval (ticks),value={{$lookAtMidTickInterval}},placeholder=3,min=1,max=20,step=1,decimals=0,hint=Ticks between far updates}}
+                                    </div>
+                                </div>
                             </div>
                 
                             <div class="spacer-md"></div>
@@ -1902,8 +1937,13 @@ public class CitizensUI {
                         );
 
                         clonedCitizen.setNametagOffset(citizen.getNametagOffset());
+                        clonedCitizen.setLookAtRange(citizen.getLookAtRange());
+                        clonedCitizen.setLookAtNearRange(citizen.getLookAtNearRange());
+                        clonedCitizen.setLookAtMidThreshold(citizen.getLookAtMidThreshold());
+                        clonedCitizen.setLookAtMidTickInterval(citizen.getLookAtMidTickInterval());
                         clonedCitizen.setHideNametag(citizen.isHideNametag());
                         clonedCitizen.setHideNpc(citizen.isHideNpc());
+                        clonedCitizen.setStaticMode(citizen.isStaticMode());
                         clonedCitizen.setFKeyInteractionEnabled(citizen.getFKeyInteractionEnabled());
                         clonedCitizen.setNpcHelmet(citizen.getNpcHelmet());
                         clonedCitizen.setNpcChest(citizen.getNpcChest());
@@ -2238,6 +2278,7 @@ public class CitizensUI {
         final float[] nametagOffset = {citizen.getNametagOffset()};
         final boolean[] hideNametag = {citizen.isHideNametag()};
         final boolean[] hideNpc = {citizen.isHideNpc()};
+        final boolean[] staticMode = {citizen.isStaticMode()};
         final String[] currentModelId = {citizen.getModelId()};
         final float[] currentScale = {citizen.getScale()};
         final String[] currentPermission = {citizen.getRequiredPermission()};
@@ -2245,6 +2286,10 @@ public class CitizensUI {
         final boolean[] isPlayerModel = {citizen.isPlayerModel()};
         final boolean[] useLiveSkin = {citizen.isUseLiveSkin()};
         final boolean[] rotateTowardsPlayer = {citizen.getRotateTowardsPlayer()};
+        final float[] lookAtRange = {citizen.getLookAtRange()};
+        final float[] lookAtNearRange = {citizen.getLookAtNearRange()};
+        final float[] lookAtMidThreshold = {citizen.getLookAtMidThreshold()};
+        final int[] lookAtMidTickInterval = {citizen.getLookAtMidTickInterval()};
         final boolean[] FKeyInteraction = {citizen.getFKeyInteractionEnabled()};
         final String[] skinUsername = {citizen.getSkinUsername()};
         final PlayerSkin[] cachedSkin = {citizen.getCachedSkin()};
@@ -2310,6 +2355,22 @@ public class CitizensUI {
             rotateTowardsPlayer[0] = ctx.getValue("rotate-towards-player", Boolean.class).orElse(false);
         });
 
+        page.addEventListener("look-at-range", CustomUIEventBindingType.ValueChanged, (event, ctx) -> {
+            ctx.getValue("look-at-range", Double.class).ifPresent(v -> lookAtRange[0] = v.floatValue());
+        });
+
+        page.addEventListener("look-at-near-range", CustomUIEventBindingType.ValueChanged, (event, ctx) -> {
+            ctx.getValue("look-at-near-range", Double.class).ifPresent(v -> lookAtNearRange[0] = v.floatValue());
+        });
+
+        page.addEventListener("look-at-mid-threshold", CustomUIEventBindingType.ValueChanged, (event, ctx) -> {
+            ctx.getValue("look-at-mid-threshold", Double.class).ifPresent(v -> lookAtMidThreshold[0] = v.floatValue());
+        });
+
+        page.addEventListener("look-at-mid-tick-interval", CustomUIEventBindingType.ValueChanged, (event, ctx) -> {
+            ctx.getValue("look-at-mid-tick-interval", Double.class).ifPresent(v -> lookAtMidTickInterval[0] = v.intValue());
+        });
+
         page.addEventListener("nametag-offset", CustomUIEventBindingType.ValueChanged, (event, ctx) -> {
             ctx.getValue("nametag-offset", Double.class)
                     .ifPresent(val -> nametagOffset[0] = val.floatValue());
@@ -2333,6 +2394,13 @@ public class CitizensUI {
             hideNpc[0] = ctx.getValue("hide-npc-check", Boolean.class).orElse(false);
         });
 
+        // Player models always spawn as full NPCs, so the static option is only offered for other entities
+        if (!citizen.isPlayerModel()) {
+            page.addEventListener("static-mode-check", CustomUIEventBindingType.ValueChanged, (event, ctx) -> {
+                staticMode[0] = ctx.getValue("static-mode-check", Boolean.class).orElse(false);
+            });
+        }
+
         page.addEventListener("f-key-interaction", CustomUIEventBindingType.ValueChanged, (event, ctx) -> {
             FKeyInteraction[0] = ctx.getValue("f-key-interaction", Boolean.class).orElse(true);
         });
@@ -2497,11 +2565,16 @@ public class CitizensUI {
             citizen.setPlayerModel(isPlayerModel[0]);
             citizen.setUseLiveSkin(useLiveSkin[0]);
             citizen.setRotateTowardsPlayer(rotateTowardsPlayer[0]);
+            citizen.setLookAtRange(lookAtRange[0]);
+            citizen.setLookAtNearRange(lookAtNearRange[0]);
+            citizen.setLookAtMidThreshold(lookAtMidThreshold[0]);
+            citizen.setLookAtMidTickInterval(lookAtMidTickInterval[0]);
             citizen.setFKeyInteractionEnabled(FKeyInteraction[0]);
             citizen.setSkinUsername(skinUsername[0].trim());
             citizen.setNametagOffset(nametagOffset[0]);
             citizen.setHideNametag(hideNametag[0]);
             citizen.setHideNpc(hideNpc[0]);
+            citizen.setStaticMode(staticMode[0] && !isPlayerModel[0]);
             citizen.setGroup(currentGroup[0]);
 
             if (isPlayerModel[0]) {
@@ -0,0 +1,168 @@
+package com.electro.hycitizens.util;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+// Hashed timing wheel. Scheduling, replacing and cancelling are O(1), and advancing only touches the slots that elapsed.
+// Not thread safe, callers confine a wheel to a single thread
+public class TimingWheel<K, V> {
+    private final long tickMs;
+    private final Entry<K, V>[] slots;
+    private final Map<K, Entry<K, V>> entries = new HashMap<>();
+    private final List<Entry<K, V>> due = new ArrayList<>();
+    private long currentTick = -1;
+
+    private static final class Entry<K, V> {
+        private final K key;
+        private V value;
+        private long deadline;
+        private int slot = -1;
+        private Entry<K, V> prev;
+        private Entry<K, V> next;
+
+        private Entry(@Nonnull K key) {
+            this.key = key;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public TimingWheel(long tickMs, int slotCount) {
+        if (tickMs <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("tickMs and slotCount must be positive");
+        }
+
+        this.tickMs = tickMs;
+        this.slots = (Entry<K, V>[]) new Entry[slotCount];
+    }
+
+    // Schedules the key to fire at the given time, replacing any pending schedule for it
+    public void schedule(@Nonnull K key, @Nullable V value, long deadline) {
+        Entry<K, V> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+        } else {
+            unlink(entry);
+        }
+
+        entry.value = value;
+        entry.deadline = deadline;
+        link(entry, slotFor(deadline));
+    }
+
+    public boolean cancel(@Nonnull K key) {
+        Entry<K, V> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+
+        unlink(entry);
+        return true;
+    }
+
+    public boolean contains(@Nonnull K key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        Arrays.fill(slots, null);
+    }
+
+    // Fires every entry whose deadline is at or before now. Fired entries are removed before the callback runs,
+    // so the callback may schedule the same key again
+    public void advance(long now, @Nonnull BiConsumer<K, V> onFire) {
+        long targetTick = Math.floorDiv(now, tickMs);
+        if (currentTick < 0) {
+            currentTick = targetTick - 1;
+        }
+
+        if (entries.isEmpty()) {
+            currentTick = targetTick;
+            return;
+        }
+
+        // After a long stall one full revolution already covers every slot
+        long fromTick = Math.max(currentTick + 1, targetTick - slots.length + 1);
+
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            int slot = (int) Math.floorMod(tick, (long) slots.length);
+
+            // Entries more than one revolution out stay until their round comes up
+            for (Entry<K, V> entry = slots[slot]; entry != null; entry = entry.next) {
+                if (entry.deadline <= now) {
+                    due.add(entry);
+                }
+            }
+        }
+
+        currentTick = targetTick;
+
+        // Unlink everything first so callbacks can freely schedule or cancel other keys
+        for (Entry<K, V> entry : due) {
+            unlink(entry);
+        }
+
+        try {
+            for (Entry<K, V> entry : due) {
+                // Skip entries a previous callback cancelled or rescheduled
+                if (entry.slot >= 0 || entries.get(entry.key) != entry) {
+                    continue;
+                }
+
+                entries.remove(entry.key);
+                onFire.accept(entry.key, entry.value);
+            }
+        } finally {
+            due.clear();
+        }
+    }
+
+    private int slotFor(long deadline) {
+        // Filed under the first tick at or after the deadline, so the entry is always due when its slot is processed.
+        // Flooring would put a deadline partway through a tick into a slot that is passed over before it is due.
+        // Anything already due lands in the next slot to be processed
+        long tick = Math.max(-Math.floorDiv(-deadline, tickMs), currentTick + 1);
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+
+    private void link(@Nonnull Entry<K, V> entry, int slot) {
+        entry.slot = slot;
+        entry.prev = null;
+        entry.next = slots[slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        slots[slot] = entry;
+    }
+
+    private void unlink(@Nonnull Entry<K, V> entry) {
+        if (entry.slot < 0) {
+            return;
+        }
+
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[entry.slot] = entry.next;
+        }
+
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+
+        entry.prev = null;
+        entry.next = null;
+        entry.slot = -1;
+    }
+}
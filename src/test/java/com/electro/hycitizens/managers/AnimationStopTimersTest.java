@@ -0,0 +1,67 @@
+package com.electro.hycitizens.managers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnimationStopTimersTest {
+    private record Stop(int slot, String animationName, long at) {
+    }
+
+    @Test
+    void stopFiresWithinOneWheelTickOfItsDeadline() {
+        List<Stop> stops = new ArrayList<>();
+        long[] now = {0};
+        AnimationStopTimers timers = new AnimationStopTimers((npcRef, slot, name) -> stops.add(new Stop(slot, name, now[0])));
+
+        now[0] = 1000;
+        timers.beginTick(now[0]);
+        timers.scheduleAt("a", 2, null, "Idle", 3725);
+
+        while (stops.isEmpty() && now[0] < 30_000) {
+            now[0] += 50;
+            timers.beginTick(now[0]);
+        }
+
+        assertEquals(1, stops.size());
+        Stop stop = stops.get(0);
+        assertEquals(2, stop.slot());
+        assertEquals("Idle", stop.animationName());
+        assertTrue(stop.at() >= 3725 && stop.at() < 3725 + 50, "stopped at " + stop.at());
+        assertEquals(0, timers.size());
+    }
+
+    @Test
+    void laterScheduleForTheSameSlotReplacesTheEarlierOne() {
+        List<Stop> stops = new ArrayList<>();
+        AnimationStopTimers timers = new AnimationStopTimers((npcRef, slot, name) -> stops.add(new Stop(slot, name, 0)));
+
+        timers.beginTick(0);
+        timers.scheduleAt("a", 1, null, "First", 100);
+        timers.scheduleAt("a", 1, null, "Second", 300);
+        timers.scheduleAt("a", 0, null, "OtherSlot", 100);
+
+        timers.beginTick(150);
+        assertEquals(List.of(new Stop(0, "OtherSlot", 0)), stops);
+
+        timers.beginTick(300);
+        assertEquals(new Stop(1, "Second", 0), stops.get(1));
+        assertEquals(2, stops.size());
+    }
+
+    @Test
+    void cancelledStopsDoNotFire() {
+        List<Stop> stops = new ArrayList<>();
+        AnimationStopTimers timers = new AnimationStopTimers((npcRef, slot, name) -> stops.add(new Stop(slot, name, 0)));
+
+        timers.beginTick(0);
+        timers.scheduleAt("a", 1, null, "Idle", 100);
+        timers.cancel("a", 1);
+
+        timers.beginTick(1000);
+        assertTrue(stops.isEmpty());
+    }
+}
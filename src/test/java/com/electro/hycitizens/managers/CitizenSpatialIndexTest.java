@@ -0,0 +1,74 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import com.hypixel.hytale.math.util.ChunkUtil;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.electro.hycitizens.models.TestCitizens.citizen;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CitizenSpatialIndexTest {
+    private static final UUID WORLD = UUID.randomUUID();
+
+    @Test
+    void citizensAreIndexedByHomeChunk() {
+        CitizenSpatialIndex index = new CitizenSpatialIndex();
+        CitizenData citizen = citizen("a", WORLD, 10, 10);
+
+        index.update(citizen);
+
+        assertEquals(List.of(citizen), index.getCitizensInChunk(WORLD, ChunkUtil.indexChunkFromBlock(10, 10)));
+        assertTrue(index.getCitizensInChunk(WORLD, ChunkUtil.indexChunkFromBlock(100, 10)).isEmpty());
+    }
+
+    @Test
+    void awayCitizenIsFoundByTheChunkItsEntityWasSavedIn() {
+        CitizenSpatialIndex index = new CitizenSpatialIndex();
+        CitizenData citizen = citizen("a", WORLD, 10, 10);
+        long awayChunk = ChunkUtil.indexChunkFromBlock(100, 10);
+        index.update(citizen);
+
+        index.markAway(citizen, awayChunk);
+
+        assertTrue(index.isAway(citizen));
+        assertEquals(List.of(citizen), index.getCitizensAwayInChunk(WORLD, awayChunk));
+        // Still indexed at home, which is what edits and lookups by position use
+        assertEquals(List.of(citizen), index.getCitizensInChunk(WORLD, ChunkUtil.indexChunkFromBlock(10, 10)));
+    }
+
+    @Test
+    void markingTheHomeChunkClearsAnEarlierAwayChunk() {
+        CitizenSpatialIndex index = new CitizenSpatialIndex();
+        CitizenData citizen = citizen("a", WORLD, 10, 10);
+        long awayChunk = ChunkUtil.indexChunkFromBlock(100, 10);
+        index.update(citizen);
+
+        index.markAway(citizen, awayChunk);
+        index.markAway(citizen, ChunkUtil.indexChunkFromBlock(10, 10));
+
+        assertFalse(index.isAway(citizen));
+        assertTrue(index.getCitizensAwayInChunk(WORLD, awayChunk).isEmpty());
+    }
+
+    @Test
+    void clearAwayAndRemoveDropTheAwayEntry() {
+        CitizenSpatialIndex index = new CitizenSpatialIndex();
+        CitizenData a = citizen("a", WORLD, 10, 10);
+        CitizenData b = citizen("b", WORLD, 10, 10);
+        long awayChunk = ChunkUtil.indexChunkFromBlock(100, 10);
+        index.update(a);
+        index.update(b);
+        index.markAway(a, awayChunk);
+        index.markAway(b, awayChunk);
+
+        index.clearAway(a);
+        assertEquals(List.of(b), index.getCitizensAwayInChunk(WORLD, awayChunk));
+
+        index.remove(b);
+        assertFalse(index.isAway(b));
+        assertTrue(index.getCitizensAwayInChunk(WORLD, awayChunk).isEmpty());
+    }
+}
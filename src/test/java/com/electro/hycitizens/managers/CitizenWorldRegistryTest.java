@@ -0,0 +1,94 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static com.electro.hycitizens.models.TestCitizens.citizen;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CitizenWorldRegistryTest {
+    private static final UUID WORLD = UUID.randomUUID();
+    private static final UUID OTHER_WORLD = UUID.randomUUID();
+
+    @Test
+    void addPublishesCitizenOnce() {
+        CitizenWorldRegistry registry = new CitizenWorldRegistry();
+        CitizenData citizen = citizen("a", WORLD);
+
+        registry.add(citizen);
+        registry.add(citizen);
+
+        assertEquals(List.of(citizen), registry.getSnapshot(WORLD).citizens());
+    }
+
+    @Test
+    void snapshotIsReusedUntilMembershipChanges() {
+        CitizenWorldRegistry registry = new CitizenWorldRegistry();
+        registry.add(citizen("a", WORLD));
+
+        CitizenWorldRegistry.Snapshot first = registry.getSnapshot(WORLD);
+        assertSame(first, registry.getSnapshot(WORLD));
+
+        registry.add(citizen("b", WORLD));
+        CitizenWorldRegistry.Snapshot second = registry.getSnapshot(WORLD);
+
+        assertNotSame(first, second);
+        assertTrue(second.version() > first.version());
+        assertEquals(2, second.citizens().size());
+        assertEquals(1, first.citizens().size());
+    }
+
+    @Test
+    void bulkAddBuildsOneSnapshot() {
+        CitizenWorldRegistry registry = new CitizenWorldRegistry();
+        for (int i = 0; i < 10_000; i++) {
+            registry.add(citizen("c" + i, WORLD));
+        }
+
+        assertEquals(10_000, registry.getSnapshot(WORLD).citizens().size());
+    }
+
+    @Test
+    void moveBetweenWorldsLeavesThePreviousWorld() {
+        CitizenWorldRegistry registry = new CitizenWorldRegistry();
+        CitizenData citizen = citizen("a", WORLD);
+        registry.add(citizen);
+
+        citizen.setWorldUUID(OTHER_WORLD);
+        registry.add(citizen);
+
+        assertTrue(registry.getSnapshot(WORLD).citizens().isEmpty());
+        assertEquals(List.of(citizen), registry.getSnapshot(OTHER_WORLD).citizens());
+    }
+
+    @Test
+    void dormantCitizensLeaveTheSnapshotUntilReadded() {
+        CitizenWorldRegistry registry = new CitizenWorldRegistry();
+        CitizenData citizen = citizen("a", WORLD);
+        registry.add(citizen);
+
+        registry.markDormant(citizen);
+        assertTrue(registry.isDormant(citizen));
+        assertEquals(1, registry.getDormantCount());
+        assertTrue(registry.getSnapshot(WORLD).citizens().isEmpty());
+
+        registry.add(citizen);
+        assertFalse(registry.isDormant(citizen));
+        assertEquals(List.of(citizen), registry.getSnapshot(WORLD).citizens());
+    }
+
+    @Test
+    void removeOnlyDropsTheSameInstance() {
+        CitizenWorldRegistry registry = new CitizenWorldRegistry();
+        CitizenData citizen = citizen("a", WORLD);
+        registry.add(citizen);
+
+        registry.remove(citizen("a", WORLD));
+        registry.remove(citizen);
+
+        assertTrue(registry.getSnapshot(WORLD).citizens().isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static com.electro.hycitizens.models.TestCitizens.citizen;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObserverStateStoreTest {
+    @Test
+    void indexIsStableAndDistinctPerCitizen() {
+        ObserverStateStore store = new ObserverStateStore();
+        CitizenData a = citizen("a");
+        CitizenData b = citizen("b");
+
+        int indexA = store.indexOf(a);
+        int indexB = store.indexOf(b);
+
+        assertNotEquals(indexA, indexB);
+        assertEquals(indexA, store.indexOf(a));
+        assertEquals(indexA, a.getObserverIndex());
+    }
+
+    @Test
+    void firstLookIsAlwaysSentThenOnlyChangesPastTheThreshold() {
+        ObserverStateStore.PlayerState state = new ObserverStateStore().get(UUID.randomUUID());
+
+        assertTrue(state.updateLook(3, 0.5f, 0.1f, 0.05f));
+        assertFalse(state.updateLook(3, 0.52f, 0.11f, 0.05f));
+        assertTrue(state.updateLook(3, 0.6f, 0.11f, 0.05f));
+        assertTrue(state.updateLook(3, 0.6f, 0.2f, 0.05f));
+    }
+
+    @Test
+    void unsetEntriesReadAsZero() {
+        ObserverStateStore.PlayerState state = new ObserverStateStore().get(UUID.randomUUID());
+
+        assertEquals(0L, state.getProximityMask(40));
+        assertEquals(0, state.getMessageIndex(40));
+
+        state.setProximityMask(40, 0b101L);
+        state.setMessageIndex(40, 2);
+
+        assertEquals(0b101L, state.getProximityMask(40));
+        assertEquals(2, state.getMessageIndex(40));
+        assertEquals(0L, state.getProximityMask(39));
+    }
+
+    @Test
+    void releaseWipesPlayerStateAndRecyclesTheIndex() {
+        ObserverStateStore store = new ObserverStateStore();
+        UUID player = UUID.randomUUID();
+        CitizenData a = citizen("a");
+        int index = store.indexOf(a);
+
+        ObserverStateStore.PlayerState state = store.get(player);
+        state.updateLook(index, 1f, 1f, 0.05f);
+        state.setProximityMask(index, 1L);
+        state.setMessageIndex(index, 4);
+
+        store.release(a);
+        assertEquals(-1, a.getObserverIndex());
+
+        CitizenData b = citizen("b");
+        assertEquals(index, store.indexOf(b));
+        assertEquals(0L, state.getProximityMask(index));
+        assertEquals(0, state.getMessageIndex(index));
+        // The recycled slot carries no previous direction, so the first look is sent again
+        assertTrue(state.updateLook(index, 1f, 1f, 0.05f));
+    }
+
+    @Test
+    void evictDropsThePlayersState() {
+        ObserverStateStore store = new ObserverStateStore();
+        UUID player = UUID.randomUUID();
+
+        ObserverStateStore.PlayerState state = store.get(player);
+        assertSame(state, store.get(player));
+
+        store.evict(player);
+        assertNotSame(state, store.get(player));
+    }
+}
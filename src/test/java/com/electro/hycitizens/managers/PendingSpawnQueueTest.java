@@ -0,0 +1,220 @@
+package com.electro.hycitizens.managers;
+
+import com.electro.hycitizens.models.CitizenData;
+import com.electro.hycitizens.models.TestCitizens;
+import com.hypixel.hytale.math.vector.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingSpawnQueueTest {
+    private static final UUID WORLD = UUID.randomUUID();
+
+    private static final class TestWorld implements PendingSpawnQueue.WorldView {
+        private final Set<Long> loaded = new HashSet<>();
+        private final List<Vector3d> players = new ArrayList<>();
+        private int probes;
+
+        @Override
+        public boolean isChunkLoaded(long chunkIndex) {
+            probes++;
+            return loaded.contains(chunkIndex);
+        }
+
+        @Nonnull
+        @Override
+        public List<Vector3d> getPlayerPositions() {
+            return players;
+        }
+    }
+
+    private static CitizenData citizen(String id, double x, double z) {
+        return TestCitizens.citizen(id, WORLD, x, z);
+    }
+
+    private static long now() {
+        return System.currentTimeMillis();
+    }
+
+    @Test
+    void loadedChunkIsProbedOnceAfterEnqueue() {
+        TestWorld world = new TestWorld();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, new SpawnPipeline());
+        List<String> spawned = new ArrayList<>();
+
+        world.loaded.add(1L);
+        queue.enqueue("spawn:a", citizen("a", 0, 0), 1L, () -> spawned.add("a"), null);
+        queue.beginTick(now());
+
+        assertEquals(List.of("a"), spawned);
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void waitingChunkIsNotProbedEveryTick() {
+        TestWorld world = new TestWorld();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, new SpawnPipeline());
+        List<String> spawned = new ArrayList<>();
+
+        queue.enqueue("spawn:a", citizen("a", 0, 0), 1L, () -> spawned.add("a"), null);
+        queue.beginTick(now());
+        int probesAfterFirstTick = world.probes;
+
+        // The chunk loads without a preload signal; nothing probes it before expiry
+        world.loaded.add(1L);
+        for (int i = 0; i < 20; i++) {
+            queue.beginTick(now());
+        }
+
+        assertEquals(probesAfterFirstTick, world.probes);
+        assertTrue(spawned.isEmpty());
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void preloadSignalDrainsTheChunkOnceLoaded() {
+        TestWorld world = new TestWorld();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, new SpawnPipeline());
+        List<String> spawned = new ArrayList<>();
+
+        queue.enqueue("spawn:a", citizen("a", 0, 0), 1L, () -> spawned.add("a"), null);
+        queue.enqueue("spawn:b", citizen("b", 0, 0), 2L, () -> spawned.add("b"), null);
+        queue.beginTick(now());
+
+        queue.onChunkLoading(1L);
+        queue.beginTick(now());
+        assertTrue(spawned.isEmpty());
+
+        world.loaded.add(1L);
+        queue.beginTick(now());
+
+        assertEquals(List.of("a"), spawned);
+        assertEquals(1, queue.size());
+    }
+
+    @Test
+    void signalForChunkWithoutEntriesIsIgnored() {
+        TestWorld world = new TestWorld();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, new SpawnPipeline());
+
+        queue.enqueue("spawn:a", citizen("a", 0, 0), 1L, () -> {
+        }, null);
+        queue.beginTick(now());
+        int probes = world.probes;
+
+        queue.onChunkLoading(7L);
+        queue.beginTick(now());
+
+        assertEquals(probes, world.probes);
+    }
+
+    @Test
+    void entryExpiresWhenItsChunkNeverLoads() {
+        TestWorld world = new TestWorld();
+        SpawnPipeline pipeline = new SpawnPipeline();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, pipeline);
+        List<String> events = new ArrayList<>();
+
+        queue.enqueue("spawn:a", citizen("a", 0, 0), 1L, () -> events.add("spawned"), () -> events.add("timeout"));
+        queue.beginTick(now());
+        queue.beginTick(now() + PendingSpawnQueue.DEFAULT_TIMEOUT_MS + 1);
+
+        assertEquals(List.of("timeout"), events);
+        assertEquals(0, queue.size());
+        assertEquals(1, pipeline.getExpired());
+    }
+
+    @Test
+    void expirySweepSpawnsIfTheChunkLoadedWithoutASignal() {
+        TestWorld world = new TestWorld();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, new SpawnPipeline());
+        List<String> events = new ArrayList<>();
+
+        queue.enqueue("spawn:a", citizen("a", 0, 0), 1L, () -> events.add("spawned"), () -> events.add("timeout"));
+        queue.beginTick(now());
+
+        world.loaded.add(1L);
+        queue.beginTick(now() + PendingSpawnQueue.DEFAULT_TIMEOUT_MS + 1);
+
+        assertEquals(List.of("spawned"), events);
+    }
+
+    @Test
+    void cancelledEntryNeverRuns() {
+        TestWorld world = new TestWorld();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, new SpawnPipeline());
+        List<String> spawned = new ArrayList<>();
+
+        world.loaded.add(1L);
+        queue.enqueue("spawn:a", citizen("a", 0, 0), 1L, () -> spawned.add("a"), null);
+        assertTrue(queue.cancel("spawn:a"));
+        queue.beginTick(now());
+
+        assertTrue(spawned.isEmpty());
+        assertFalse(queue.cancel("spawn:a"));
+    }
+
+    @Test
+    void cancelledBacklogEntryIsSkippedAndNoLongerCounted() {
+        TestWorld world = new TestWorld();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, new SpawnPipeline());
+        List<String> spawned = new ArrayList<>();
+        int count = SpawnPipeline.DEFAULT_MAX_PER_TICK + 2;
+
+        world.loaded.add(1L);
+        for (int i = 0; i < count; i++) {
+            String id = "c" + i;
+            queue.enqueue("spawn:" + id, citizen(id, 0, 0), 1L, () -> spawned.add(id), null);
+        }
+
+        queue.beginTick(now());
+        assertEquals(2, queue.backlogSize());
+
+        assertTrue(queue.cancel("spawn:c" + (count - 1)));
+        assertEquals(1, queue.backlogSize());
+
+        queue.beginTick(now());
+
+        assertEquals(count - 1, spawned.size());
+        assertFalse(spawned.contains("c" + (count - 1)));
+        assertEquals(0, queue.backlogSize());
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void backlogIsDrainedWithinBudgetClosestToAPlayerFirst() {
+        TestWorld world = new TestWorld();
+        SpawnPipeline pipeline = new SpawnPipeline();
+        PendingSpawnQueue queue = new PendingSpawnQueue(world, pipeline);
+        List<String> spawned = new ArrayList<>();
+        int count = SpawnPipeline.DEFAULT_MAX_PER_TICK + 2;
+
+        world.loaded.add(1L);
+        world.players.add(new Vector3d(0, 64, 0));
+        for (int i = 0; i < count; i++) {
+            String id = "c" + i;
+            // Later entries are closer to the player
+            queue.enqueue("spawn:" + id, citizen(id, count - i, 0), 1L, () -> spawned.add(id), null);
+        }
+
+        queue.beginTick(now());
+
+        assertEquals(SpawnPipeline.DEFAULT_MAX_PER_TICK, spawned.size());
+        assertEquals("c" + (count - 1), spawned.get(0));
+        assertEquals(2, queue.backlogSize());
+        assertEquals(1, pipeline.getDeferredTicks());
+
+        queue.beginTick(now());
+
+        assertEquals(count, spawned.size());
+        assertEquals(List.of("c1", "c0"), spawned.subList(count - 2, count));
+        assertEquals(0, queue.size());
+    }
+}
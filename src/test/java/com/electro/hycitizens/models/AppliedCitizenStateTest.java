@@ -0,0 +1,112 @@
+package com.electro.hycitizens.models;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppliedCitizenStateTest {
+    private static CitizenData citizen() {
+        CitizenData citizen = TestCitizens.citizen("a");
+        citizen.setName("Alice");
+        citizen.setPosition(new Vector3d(1, 64, 2));
+        citizen.setRotation(new Vector3f(0, 90, 0));
+        return citizen;
+    }
+
+    @Test
+    void unchangedCitizenMatchesEverywhere() {
+        CitizenData citizen = citizen();
+        AppliedCitizenState applied = AppliedCitizenState.capture(citizen, "role");
+        AppliedCitizenState target = AppliedCitizenState.capture(citizen, "role");
+
+        assertTrue(applied.sameEntityKind(target));
+        assertTrue(applied.sameModel(target));
+        assertTrue(applied.sameTransform(target));
+        assertTrue(applied.sameItems(target));
+        assertTrue(applied.sameNametag(target));
+    }
+
+    @Test
+    void captureCopiesPositionAndRotation() {
+        CitizenData citizen = citizen();
+        AppliedCitizenState applied = AppliedCitizenState.capture(citizen, null);
+
+        citizen.getPosition().x = 50;
+        citizen.getRotation().y = 10;
+
+        assertEquals(1.0, applied.position().x);
+        assertEquals(90f, applied.rotation().y);
+    }
+
+    @Test
+    void moveOnlyChangesTheTransform() {
+        CitizenData citizen = citizen();
+        AppliedCitizenState applied = AppliedCitizenState.capture(citizen, null);
+
+        citizen.setPosition(new Vector3d(5, 64, 5));
+        AppliedCitizenState target = AppliedCitizenState.capture(citizen, null);
+
+        assertFalse(applied.sameTransform(target));
+        assertTrue(applied.sameEntityKind(target));
+        assertTrue(applied.sameModel(target));
+        assertTrue(applied.sameNametag(target));
+    }
+
+    @Test
+    void scaleChangesTheModelAndTheNametag() {
+        CitizenData citizen = citizen();
+        AppliedCitizenState applied = AppliedCitizenState.capture(citizen, null);
+
+        citizen.setScale(2f);
+        AppliedCitizenState target = AppliedCitizenState.capture(citizen, null);
+
+        assertFalse(applied.sameModel(target));
+        assertFalse(applied.sameNametag(target));
+        assertTrue(applied.sameEntityKind(target));
+    }
+
+    @Test
+    void itemChangeOnlyChangesItems() {
+        CitizenData citizen = citizen();
+        AppliedCitizenState applied = AppliedCitizenState.capture(citizen, null);
+
+        citizen.setNpcHand("Weapon_Sword_Iron");
+        AppliedCitizenState target = AppliedCitizenState.capture(citizen, null);
+
+        assertFalse(applied.sameItems(target));
+        assertTrue(applied.sameModel(target));
+        assertTrue(applied.sameTransform(target));
+    }
+
+    @Test
+    void entityKindChangesNeedARespawn() {
+        CitizenData citizen = citizen();
+        AppliedCitizenState applied = AppliedCitizenState.capture(citizen, null);
+
+        citizen.setStaticMode(true);
+        assertFalse(applied.sameEntityKind(AppliedCitizenState.capture(citizen, null)));
+
+        citizen.setStaticMode(false);
+        citizen.setPlayerModel(true);
+        assertFalse(applied.sameEntityKind(AppliedCitizenState.capture(citizen, null)));
+
+        citizen.setPlayerModel(false);
+        citizen.setSkinUsername("someone");
+        assertFalse(applied.sameEntityKind(AppliedCitizenState.capture(citizen, null)));
+    }
+
+    @Test
+    void renameOnlyChangesTheNametag() {
+        CitizenData citizen = citizen();
+        AppliedCitizenState applied = AppliedCitizenState.capture(citizen, null);
+
+        citizen.setName("Bob");
+        AppliedCitizenState target = AppliedCitizenState.capture(citizen, null);
+
+        assertFalse(applied.sameNametag(target));
+        assertTrue(applied.sameModel(target));
+        assertTrue(applied.sameEntityKind(target));
+    }
+}
@@ -0,0 +1,30 @@
+package com.electro.hycitizens.models;
+
+import com.hypixel.hytale.math.vector.Vector3d;
+import com.hypixel.hytale.math.vector.Vector3f;
+
+import javax.annotation.Nonnull;
+import java.util.List;
+import java.util.UUID;
+
+// Citizens for tests, with everything but the ID, world and position left at the defaults a new citizen gets
+public final class TestCitizens {
+    private TestCitizens() {
+    }
+
+    @Nonnull
+    public static CitizenData citizen(@Nonnull String id) {
+        return citizen(id, UUID.randomUUID());
+    }
+
+    @Nonnull
+    public static CitizenData citizen(@Nonnull String id, @Nonnull UUID worldUUID) {
+        return citizen(id, worldUUID, 0, 0);
+    }
+
+    @Nonnull
+    public static CitizenData citizen(@Nonnull String id, @Nonnull UUID worldUUID, double x, double z) {
+        return new CitizenData(id, id, "Player", worldUUID, new Vector3d(x, 64, z), new Vector3f(0, 0, 0), 1f,
+                null, null, "", "", List.of(), false, false, null, null, 0L, false);
+    }
+}
@@ -0,0 +1,167 @@
+package com.electro.hycitizens.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final class Recorder {
+        private final List<String> fired = new ArrayList<>();
+        private final List<Long> firedAt = new ArrayList<>();
+        private long now;
+
+        private void advance(TimingWheel<String, String> wheel, long now) {
+            this.now = now;
+            wheel.advance(now, (key, value) -> {
+                fired.add(key);
+                firedAt.add(this.now);
+            });
+        }
+    }
+
+    @Test
+    void deadlinePartwayThroughATickFiresOnTheNextTick() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(100, 512);
+        Recorder recorder = new Recorder();
+
+        recorder.advance(wheel, 1000);
+        wheel.schedule("a", "a", 6050);
+
+        for (long now = 1120; now <= 60_000 && recorder.fired.isEmpty(); now += 100) {
+            recorder.advance(wheel, now);
+        }
+
+        assertEquals(List.of("a"), recorder.fired);
+        long firedAt = recorder.firedAt.get(0);
+        assertTrue(firedAt >= 6050 && firedAt < 6050 + 100, "fired at " + firedAt);
+    }
+
+    @Test
+    void advanceWithinTheDeadlineTickDoesNotSkipTheEntry() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(100, 8);
+        Recorder recorder = new Recorder();
+
+        recorder.advance(wheel, 0);
+        wheel.schedule("a", "a", 250);
+
+        recorder.advance(wheel, 220);
+        assertTrue(recorder.fired.isEmpty());
+
+        recorder.advance(wheel, 260);
+        assertTrue(recorder.fired.isEmpty(), "no tick boundary was crossed yet");
+
+        recorder.advance(wheel, 300);
+        assertEquals(List.of("a"), recorder.fired);
+    }
+
+    @Test
+    void neverFiresEarly() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(50, 16);
+        List<long[]> firings = new ArrayList<>();
+        long[] now = {0};
+
+        wheel.advance(0, (k, v) -> { });
+        for (int i = 0; i < 200; i++) {
+            wheel.schedule("k" + i, "v", 7L * i + 13);
+        }
+
+        for (now[0] = 0; now[0] <= 3000; now[0] += 17) {
+            wheel.advance(now[0], (key, value) -> firings.add(new long[]{Long.parseLong(key.substring(1)), now[0]}));
+        }
+
+        assertEquals(200, firings.size());
+        for (long[] firing : firings) {
+            long deadline = 7L * firing[0] + 13;
+            assertTrue(firing[1] >= deadline, "k" + firing[0] + " fired early");
+            assertTrue(firing[1] < deadline + 50 + 17, "k" + firing[0] + " fired late at " + firing[1]);
+        }
+    }
+
+    @Test
+    void alreadyDueEntriesFireOnTheNextAdvance() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(100, 8);
+        Recorder recorder = new Recorder();
+
+        recorder.advance(wheel, 1000);
+        wheel.schedule("a", "a", 500);
+
+        recorder.advance(wheel, 1100);
+        assertEquals(List.of("a"), recorder.fired);
+    }
+
+    @Test
+    void entriesBeyondOneRevolutionWaitForTheirRound() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(100, 4);
+        Recorder recorder = new Recorder();
+
+        recorder.advance(wheel, 0);
+        wheel.schedule("a", "a", 1000);
+
+        for (long now = 100; now < 1000; now += 100) {
+            recorder.advance(wheel, now);
+        }
+        assertTrue(recorder.fired.isEmpty());
+
+        recorder.advance(wheel, 1000);
+        assertEquals(List.of("a"), recorder.fired);
+    }
+
+    @Test
+    void scheduleReplacesAndCancelRemoves() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(100, 8);
+        Recorder recorder = new Recorder();
+
+        recorder.advance(wheel, 0);
+        wheel.schedule("a", "first", 200);
+        wheel.schedule("a", "second", 400);
+        wheel.schedule("b", "b", 200);
+        assertEquals(2, wheel.size());
+
+        assertTrue(wheel.cancel("b"));
+        assertFalse(wheel.cancel("b"));
+
+        recorder.advance(wheel, 300);
+        assertTrue(recorder.fired.isEmpty());
+
+        recorder.advance(wheel, 400);
+        assertEquals(List.of("a"), recorder.fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void callbackMayRescheduleTheFiredKey() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(100, 8);
+        List<Long> firedAt = new ArrayList<>();
+
+        wheel.advance(0, (k, v) -> { });
+        wheel.schedule("a", "a", 100);
+
+        for (long now = 100; now <= 500; now += 100) {
+            long tickNow = now;
+            wheel.advance(now, (key, value) -> {
+                firedAt.add(tickNow);
+                wheel.schedule(key, value, tickNow + 200);
+            });
+        }
+
+        assertEquals(List.of(100L, 300L, 500L), firedAt);
+        assertTrue(wheel.contains("a"));
+    }
+
+    @Test
+    void longStallFiresEverythingDue() {
+        TimingWheel<String, String> wheel = new TimingWheel<>(100, 4);
+        Recorder recorder = new Recorder();
+
+        recorder.advance(wheel, 0);
+        for (int i = 1; i <= 10; i++) {
+            wheel.schedule("k" + i, "v", i * 150L);
+        }
+
+        recorder.advance(wheel, 10_000);
+        assertEquals(10, recorder.fired.size());
+    }
+}